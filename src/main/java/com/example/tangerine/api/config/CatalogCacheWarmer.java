@@ -0,0 +1,26 @@
+package com.example.tangerine.api.config;
+
+import com.example.tangerine.api.repository.IngredientRepository;
+import com.example.tangerine.api.repository.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cache.catalog.warm-up", havingValue = "true")
+public class CatalogCacheWarmer {
+
+  private final IngredientRepository ingredientRepository;
+  private final RoleRepository roleRepository;
+
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void warmUp() {
+    ingredientRepository.findAll();
+    roleRepository.findAll();
+  }
+}
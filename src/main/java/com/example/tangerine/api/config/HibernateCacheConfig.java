@@ -0,0 +1,52 @@
+package com.example.tangerine.api.config;
+
+import com.example.tangerine.api.domain.Ingredient;
+import com.example.tangerine.api.domain.Role;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateCacheConfig {
+  private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+  private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+  // The provider's default manager is JVM-global, so a second context in the same JVM would
+  // collide on the region names. Each context gets its own manager, closed with the context.
+  @Bean
+  public CacheManager hibernateCacheManager(@Value("${cache.catalog.max-size}") long maxSize,
+                                            @Value("${cache.catalog.ttl}") Duration ttl) {
+    var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+    var cacheManager = provider.getCacheManager(
+        URI.create("tangerine-api:" + UUID.randomUUID()), provider.getDefaultClassLoader());
+    var catalogRegions = List.of(
+        Ingredient.class.getName(), Role.class.getName(), QUERY_RESULTS_REGION);
+    for (var region : catalogRegions) {
+      var configuration = new CaffeineConfiguration<>();
+      configuration.setMaximumSize(OptionalLong.of(maxSize));
+      configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+      configuration.setStatisticsEnabled(true);
+      cacheManager.createCache(region, configuration);
+    }
+    var timestamps = new CaffeineConfiguration<>();
+    timestamps.setStatisticsEnabled(true);
+    cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, timestamps);
+    return cacheManager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager cacheManager) {
+    return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+  }
+}
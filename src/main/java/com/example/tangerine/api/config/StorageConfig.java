@@ -0,0 +1,44 @@
+package com.example.tangerine.api.config;
+
+import com.example.tangerine.api.service.impl.AwsS3StorageService;
+import com.example.tangerine.api.service.impl.CachingStorageService;
+import com.example.tangerine.api.service.impl.StorageWorkers;
+import io.awspring.cloud.autoconfigure.core.AwsClientBuilderConfigurer;
+import io.awspring.cloud.autoconfigure.s3.properties.S3Properties;
+import java.nio.file.Path;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+
+@Configuration
+public class StorageConfig {
+
+  @Configuration
+  @ConditionalOnProperty(name = "storage.type", havingValue = "s3", matchIfMissing = true)
+  static class S3StorageConfig {
+
+    @Bean
+    public S3AsyncClient s3AsyncClient(AwsClientBuilderConfigurer configurer,
+                                       S3Properties properties) {
+      return configurer.configure(S3AsyncClient.builder(), properties, null)
+          .serviceConfiguration(properties.toS3Configuration())
+          .build();
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "storage.cache.enabled", havingValue = "true")
+    public CachingStorageService cachingStorageService(
+        AwsS3StorageService s3StorageService,
+        StorageWorkers workers,
+        @Value("${storage.cache.directory}") Path directory,
+        @Value("${storage.cache.max-size}") DataSize maxSize) {
+      return new CachingStorageService(
+          s3StorageService, directory, maxSize.toBytes(), workers.getExecutor());
+    }
+  }
+}
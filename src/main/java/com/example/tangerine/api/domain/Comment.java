@@ -5,22 +5,31 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.Instant;
 import java.util.Objects;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "COMMENTS")
+@Table(name = "COMMENTS", indexes = {
+    @Index(name = "comments_created_at_id_idx", columnList = "created_at, id"),
+    @Index(name = "comments_id_author_id_idx", columnList = "id, author_id"),
+    @Index(name = "comments_recipe_id_created_at_id_idx",
+        columnList = "recipe_id, created_at, id")})
 public class Comment {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+  @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
   @Column(name = "id", nullable = false)
   private Long id;
 
@@ -30,6 +39,11 @@ public class Comment {
   @Column(name = "created_at")
   private Instant createdAt = Instant.now();
 
+  @Version
+  @ColumnDefault("0")
+  @Column(name = "version", nullable = false)
+  private long version;
+
   @ManyToOne
   @JoinColumn(name = "author_id")
   private User author;
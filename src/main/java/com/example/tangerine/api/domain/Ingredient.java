@@ -1,13 +1,19 @@
 package com.example.tangerine.api.domain;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Objects;
@@ -15,14 +21,24 @@ import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "INGREDIENTS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(name = "Ingredient.recipes",
+    attributeNodes = @NamedAttributeNode("recipes"))
+@Table(name = "INGREDIENTS", indexes = @Index(
+    name = "ingredients_created_at_id_idx", columnList = "created_at, id"))
 public class Ingredient {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ingredients_seq")
+  @SequenceGenerator(name = "ingredients_seq", sequenceName = "ingredients_seq",
+      allocationSize = 50)
   @Column(name = "id", nullable = false)
   private Long id;
 
@@ -32,10 +48,19 @@ public class Ingredient {
   @Column(name = "created_at")
   private Instant createdAt = Instant.now();
 
+  @Version
+  @ColumnDefault("0")
+  @Column(name = "version", nullable = false)
+  private long version;
+
   @Column(name = "image_key")
   private String imageKey;
 
-  @ManyToMany(mappedBy = "ingredients", fetch = FetchType.EAGER)
+  // Filled from IngredientCounter, see IngredientCounterRepository#findRecipeCounts.
+  @Transient
+  private long recipeCount;
+
+  @ManyToMany(mappedBy = "ingredients")
   private Set<Recipe> recipes = new HashSet<>();
 
   @Override
@@ -0,0 +1,44 @@
+package com.example.tangerine.api.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.util.Objects;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
+
+// Kept apart from the cached Ingredient so that counter updates never touch its cache region.
+@Getter
+@Setter
+@Entity
+@Table(name = "INGREDIENT_COUNTERS")
+public class IngredientCounter {
+  @Id
+  @Column(name = "ingredient_id", nullable = false)
+  private Long ingredientId;
+
+  @ColumnDefault("0")
+  @Column(name = "recipe_count", nullable = false)
+  private long recipeCount;
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+      return false;
+    }
+    IngredientCounter counter = (IngredientCounter) o;
+    return getIngredientId() != null
+        && Objects.equals(getIngredientId(), counter.getIngredientId());
+  }
+
+  @Override
+  public int hashCode() {
+    return getClass().hashCode();
+  }
+}
@@ -2,31 +2,41 @@ package com.example.tangerine.api.domain;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.Instant;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "MENUS")
+@NamedEntityGraph(name = "Menu.recipes", attributeNodes = @NamedAttributeNode("recipes"))
+@Table(name = "MENUS", indexes = {
+    @Index(name = "menus_created_at_id_idx", columnList = "created_at, id"),
+    @Index(name = "menus_id_author_id_idx", columnList = "id, author_id"),
+    @Index(name = "menus_author_id_created_at_id_idx",
+        columnList = "author_id, created_at, id")})
 public class Menu {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menus_seq")
+  @SequenceGenerator(name = "menus_seq", sequenceName = "menus_seq", allocationSize = 50)
   @Column(name = "id", nullable = false)
   private Long id;
 
@@ -36,14 +46,23 @@ public class Menu {
   @Column(name = "created_at")
   private Instant createdAt = Instant.now();
 
+  @Version
+  @ColumnDefault("0")
+  @Column(name = "version", nullable = false)
+  private long version;
+
   @Column(name = "image_key")
   private String imageKey;
 
+  @ColumnDefault("0")
+  @Column(name = "recipe_count", nullable = false, updatable = false)
+  private long recipeCount;
+
   @ManyToOne
   @JoinColumn(name = "author_id")
   private User author;
 
-  @ManyToMany(fetch = FetchType.EAGER)
+  @ManyToMany
   @JoinTable(name = "menus_recipes",
       joinColumns = @JoinColumn(name = "menu_id"),
       inverseJoinColumns = @JoinColumn(name = "recipe_id"))
@@ -59,12 +78,6 @@ public class Menu {
     recipe.getMenus().remove(this);
   }
 
-  public void rewriteRecipes(List<Recipe> recipes) {
-    this.recipes.forEach(recipe -> recipe.getMenus().remove(this));
-    this.recipes.clear();
-    recipes.forEach(this::addRecipe);
-  }
-
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -5,16 +5,20 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -24,14 +28,31 @@ import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "RECIPES")
+@NamedEntityGraph(name = "Recipe.menus", attributeNodes = @NamedAttributeNode("menus"))
+@NamedEntityGraph(name = "Recipe.ingredients",
+    attributeNodes = @NamedAttributeNode("ingredients"))
+@Table(name = "RECIPES", indexes = {
+    @Index(name = "recipes_created_at_id_idx", columnList = "created_at, id"),
+    @Index(name = "recipes_id_author_id_idx", columnList = "id, author_id"),
+    @Index(name = "recipes_products_cost_id_idx", columnList = "products_cost, id"),
+    @Index(name = "recipes_seconds_duration_id_idx", columnList = "seconds_duration, id"),
+    @Index(name = "recipes_complexity_created_at_id_idx",
+        columnList = "complexity, created_at, id"),
+    @Index(name = "recipes_complexity_products_cost_id_idx",
+        columnList = "complexity, products_cost, id"),
+    @Index(name = "recipes_complexity_seconds_duration_id_idx",
+        columnList = "complexity, seconds_duration, id"),
+    @Index(name = "recipes_author_id_created_at_id_idx",
+        columnList = "author_id, created_at, id")})
 public class Recipe {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipes_seq")
+  @SequenceGenerator(name = "recipes_seq", sequenceName = "recipes_seq", allocationSize = 50)
   @Column(name = "id")
   private Long id;
 
@@ -41,7 +62,7 @@ public class Recipe {
   @Column(name = "description", length = 65535)
   private String description;
 
-  @Column(name = "seconds_duration", columnDefinition = "TEXT")
+  @Column(name = "seconds_duration")
   private Long secondsDuration;
 
   @Column(name = "products_cost")
@@ -50,6 +71,11 @@ public class Recipe {
   @Column(name = "created_at")
   private Instant createdAt = Instant.now();
 
+  @Version
+  @ColumnDefault("0")
+  @Column(name = "version", nullable = false)
+  private long version;
+
   @Column(name = "image_key")
   private String imageKey;
 
@@ -57,6 +83,18 @@ public class Recipe {
   @Column(name = "complexity")
   private Complexity complexity;
 
+  @ColumnDefault("0")
+  @Column(name = "comment_count", nullable = false, updatable = false)
+  private long commentCount;
+
+  @ColumnDefault("0")
+  @Column(name = "ingredient_count", nullable = false, updatable = false)
+  private long ingredientCount;
+
+  @ColumnDefault("0")
+  @Column(name = "menu_count", nullable = false, updatable = false)
+  private long menuCount;
+
   @ManyToOne
   @JoinColumn(name = "author_id")
   private User author;
@@ -64,10 +102,10 @@ public class Recipe {
   @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
   private List<Comment> comments = new ArrayList<>();
 
-  @ManyToMany(mappedBy = "recipes", fetch = FetchType.EAGER)
+  @ManyToMany(mappedBy = "recipes")
   private Set<Menu> menus = new HashSet<>();
 
-  @ManyToMany(fetch = FetchType.EAGER)
+  @ManyToMany
   @JoinTable(name = "recipes_ingredients",
       joinColumns = @JoinColumn(name = "recipe_id"),
       inverseJoinColumns = @JoinColumn(name = "ingredient_id"))
@@ -93,12 +131,6 @@ public class Recipe {
     ingredient.getRecipes().remove(this);
   }
 
-  public void rewriteIngredients(List<Ingredient> ingredients) {
-    this.ingredients.forEach(ingredient -> ingredient.getRecipes().remove(this));
-    this.ingredients.clear();
-    ingredients.forEach(this::addIngredient);
-  }
-
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -0,0 +1,7 @@
+package com.example.tangerine.api.exception;
+
+public class EntityVersionMismatchException extends RuntimeException {
+  public EntityVersionMismatchException(String message) {
+    super(message);
+  }
+}
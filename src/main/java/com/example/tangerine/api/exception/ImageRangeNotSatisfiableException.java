@@ -0,0 +1,7 @@
+package com.example.tangerine.api.exception;
+
+public class ImageRangeNotSatisfiableException extends RuntimeException {
+  public ImageRangeNotSatisfiableException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.example.tangerine.api.exception;
+
+public class InvalidImageSizeException extends RuntimeException {
+  public InvalidImageSizeException(String message) {
+    super(message);
+  }
+}
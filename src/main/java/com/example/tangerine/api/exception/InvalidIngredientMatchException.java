@@ -0,0 +1,7 @@
+package com.example.tangerine.api.exception;
+
+public class InvalidIngredientMatchException extends RuntimeException {
+  public InvalidIngredientMatchException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.example.tangerine.api.exception;
+
+public class PresignedUploadsDisabledException extends RuntimeException {
+  public PresignedUploadsDisabledException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.example.tangerine.api.exception;
+
+public class RecipeImportException extends RuntimeException {
+  public RecipeImportException(String message) {
+    super(message);
+  }
+}
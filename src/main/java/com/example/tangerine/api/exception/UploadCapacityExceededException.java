@@ -0,0 +1,7 @@
+package com.example.tangerine.api.exception;
+
+public class UploadCapacityExceededException extends RuntimeException {
+  public UploadCapacityExceededException(String message) {
+    super(message);
+  }
+}
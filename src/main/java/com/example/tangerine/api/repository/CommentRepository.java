@@ -1,9 +1,75 @@
 package com.example.tangerine.api.repository;
 
 import com.example.tangerine.api.domain.Comment;
+import com.example.tangerine.api.repository.projection.CommentView;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+  @Query("SELECT c FROM Comment c ORDER BY c.createdAt, c.id")
+  List<Comment> findFirstPage(Pageable pageable);
+
+  @Query("""
+      SELECT c FROM Comment c
+      WHERE c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)
+      ORDER BY c.createdAt, c.id""")
+  List<Comment> findPageAfter(Instant createdAt, Long id, Pageable pageable);
+
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.CommentView(
+          c.id, c.text, c.createdAt, a.id, a.username)
+      FROM Comment c LEFT JOIN c.author a
+      WHERE c.recipe.id = :recipeId
+      ORDER BY c.createdAt, c.id""")
+  List<CommentView> findRecipeFirstPage(Long recipeId, Pageable pageable);
+
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.CommentView(
+          c.id, c.text, c.createdAt, a.id, a.username)
+      FROM Comment c LEFT JOIN c.author a
+      WHERE c.recipe.id = :recipeId
+        AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id))
+      ORDER BY c.createdAt, c.id""")
+  List<CommentView> findRecipePageAfter(Long recipeId, Instant createdAt, Long id,
+                                        Pageable pageable);
+
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.CommentView(
+          c.id, c.text, c.createdAt, a.id, a.username)
+      FROM Comment c LEFT JOIN c.author a
+      WHERE c.recipe.id = :recipeId
+        AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id))
+      ORDER BY c.createdAt DESC, c.id DESC""")
+  List<CommentView> findRecipePageBefore(Long recipeId, Instant createdAt, Long id,
+                                         Pageable pageable);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.CommentView(
+          c.id, c.text, c.createdAt, a.id, a.username)
+      FROM Comment c LEFT JOIN c.author a""")
+  Stream<CommentView> streamAll();
+
+  boolean existsByIdAndAuthorId(Long id, Long authorId);
+
+  @Query("SELECT c.recipe.id FROM Comment c WHERE c.author.id = :authorId")
+  List<Long> findRecipeIdsByAuthorId(Long authorId);
+
+  @Query("SELECT c.recipe.id FROM Comment c WHERE c.id = :id")
+  Optional<Long> findRecipeIdById(Long id);
+
+  @Query("""
+      SELECT CASE WHEN COUNT(c) > 0 THEN true ELSE false END FROM Comment c
+      WHERE c.id = :id AND (c.author.id = :userId OR c.recipe.author.id = :userId)""")
+  boolean isCommentOrRecipeAuthor(Long id, Long userId);
 }
@@ -0,0 +1,57 @@
+package com.example.tangerine.api.repository;
+
+import com.example.tangerine.api.domain.IngredientCounter;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import one.util.streamex.StreamEx;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface IngredientCounterRepository extends JpaRepository<IngredientCounter, Long> {
+  List<IngredientCounter> findByIngredientIdIn(Collection<Long> ingredientIds);
+
+  default Map<Long, Long> findRecipeCounts(Collection<Long> ingredientIds) {
+    return ingredientIds.isEmpty()
+        ? Map.of()
+        : StreamEx.of(findByIngredientIdIn(ingredientIds))
+            .toMap(IngredientCounter::getIngredientId, IngredientCounter::getRecipeCount);
+  }
+
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "ingredient_counters"))
+  @Query(value = """
+      INSERT INTO ingredient_counters (ingredient_id, recipe_count)
+      SELECT i.id, :delta FROM ingredients i WHERE i.id IN (:ingredientIds)
+      ON CONFLICT (ingredient_id)
+      DO UPDATE SET recipe_count = ingredient_counters.recipe_count + EXCLUDED.recipe_count""",
+      nativeQuery = true)
+  void addToRecipeCount(Collection<Long> ingredientIds, long delta);
+
+  @Transactional
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "ingredient_counters"))
+  @Query(value = """
+      INSERT INTO ingredient_counters (ingredient_id, recipe_count)
+      SELECT x.id, COUNT(j.ingredient_id) FROM ingredients x
+      LEFT JOIN recipes_ingredients j ON j.ingredient_id = x.id GROUP BY x.id
+      ON CONFLICT (ingredient_id) DO UPDATE SET recipe_count = EXCLUDED.recipe_count
+      WHERE ingredient_counters.recipe_count <> EXCLUDED.recipe_count""", nativeQuery = true)
+  int reconcileRecipeCounts();
+
+  @Transactional
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "ingredient_counters"))
+  @Query(value = """
+      DELETE FROM ingredient_counters c
+      WHERE NOT EXISTS (SELECT 1 FROM ingredients i WHERE i.id = c.ingredient_id)""",
+      nativeQuery = true)
+  int deleteOrphans();
+}
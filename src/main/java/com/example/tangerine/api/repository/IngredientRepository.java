@@ -1,14 +1,53 @@
 package com.example.tangerine.api.repository;
 
 import com.example.tangerine.api.domain.Ingredient;
+import com.example.tangerine.api.repository.projection.IngredientRef;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
+  @EntityGraph("Ingredient.recipes")
+  Optional<Ingredient> findWithRecipesById(Long id);
+
+  @Transactional
   @Modifying
-  @Query("UPDATE Ingredient i SET i.imageKey = :imageKey where i.id = :id")
+  @Query("UPDATE Ingredient i SET i.imageKey = :imageKey, "
+      + "i.version = i.version + 1 where i.id = :id")
   void updateImageKeyById(Long id, String imageKey);
-}
\ No newline at end of file
+
+  @Query("SELECT COALESCE(i.imageKey, '') FROM Ingredient i WHERE i.id = :id")
+  Optional<String> findImageKeyById(Long id);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  @Query("SELECT i FROM Ingredient i ORDER BY i.createdAt, i.id")
+  List<Ingredient> findFirstPage(Pageable pageable);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  @Query("""
+      SELECT i FROM Ingredient i
+      WHERE i.createdAt > :createdAt OR (i.createdAt = :createdAt AND i.id > :id)
+      ORDER BY i.createdAt, i.id""")
+  List<Ingredient> findPageAfter(Instant createdAt, Long id, Pageable pageable);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  @Query("SELECT new com.example.tangerine.api.repository.projection.IngredientRef(i.id, i.name) "
+      + "FROM Ingredient i")
+  List<IngredientRef> findAllRefs();
+
+  @Query("SELECT i.id FROM Ingredient i WHERE i.id IN :ids")
+  Set<Long> findExistingIds(Collection<Long> ids);
+}
@@ -1,14 +1,135 @@
 package com.example.tangerine.api.repository;
 
 import com.example.tangerine.api.domain.Menu;
+import com.example.tangerine.api.repository.projection.EntityVersion;
+import com.example.tangerine.api.repository.projection.MenuView;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface MenuRepository extends JpaRepository<Menu, Long> {
+  @EntityGraph("Menu.recipes")
+  Optional<Menu> findWithRecipesById(Long id);
+
+  @Transactional
   @Modifying
-  @Query("UPDATE Menu m SET m.imageKey = :imageKey where m.id = :id")
+  @Query("UPDATE Menu m SET m.imageKey = :imageKey, "
+      + "m.version = m.version + 1 where m.id = :id")
   void updateImageKeyById(Long id, String imageKey);
+
+  @Query("SELECT COALESCE(m.imageKey, '') FROM Menu m WHERE m.id = :id")
+  Optional<String> findImageKeyById(Long id);
+
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.EntityVersion(
+          m.version, a.version)
+      FROM Menu m LEFT JOIN m.author a
+      WHERE m.id = :id""")
+  Optional<EntityVersion> findVersionById(Long id);
+
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.MenuView(
+          m.id, m.name, m.createdAt, m.imageKey, a.id, a.username, m.recipeCount, m.version,
+          a.version)
+      FROM Menu m LEFT JOIN m.author a
+      WHERE m.id = :id""")
+  Optional<MenuView> findViewById(Long id);
+
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.MenuView(
+          m.id, m.name, m.createdAt, m.imageKey, a.id, a.username, m.recipeCount, m.version,
+          a.version)
+      FROM Menu m LEFT JOIN m.author a
+      ORDER BY m.createdAt, m.id""")
+  List<MenuView> findFirstPage(Pageable pageable);
+
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.MenuView(
+          m.id, m.name, m.createdAt, m.imageKey, a.id, a.username, m.recipeCount, m.version,
+          a.version)
+      FROM Menu m LEFT JOIN m.author a
+      WHERE m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)
+      ORDER BY m.createdAt, m.id""")
+  List<MenuView> findPageAfter(Instant createdAt, Long id, Pageable pageable);
+
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.MenuView(
+          m.id, m.name, m.createdAt, m.imageKey, a.id, a.username, m.recipeCount, m.version,
+          a.version)
+      FROM Menu m JOIN m.author a
+      WHERE a.id = :authorId
+      ORDER BY m.createdAt DESC, m.id DESC""")
+  List<MenuView> findLatestByAuthorId(Long authorId, Pageable pageable);
+
+  @Query(value = "SELECT recipe_id FROM menus_recipes WHERE menu_id = :id", nativeQuery = true)
+  Set<Long> findRecipeIdsById(Long id);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "menus_recipes"))
+  @Query(value = """
+      INSERT INTO menus_recipes (menu_id, recipe_id)
+      SELECT :id, r.id FROM recipes r
+      WHERE r.id IN (:recipeIds) AND NOT EXISTS (
+          SELECT 1 FROM menus_recipes mr WHERE mr.menu_id = :id AND mr.recipe_id = r.id)""",
+      nativeQuery = true)
+  int addRecipes(Long id, Collection<Long> recipeIds);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "menus_recipes"))
+  @Query(value = "DELETE FROM menus_recipes WHERE menu_id = :id AND recipe_id IN (:recipeIds)",
+      nativeQuery = true)
+  int removeRecipes(Long id, Collection<Long> recipeIds);
+
+  @Query(value = "SELECT menu_id FROM menus_recipes WHERE recipe_id IN (:recipeIds)",
+      nativeQuery = true)
+  List<Long> findLinkedMenuIdsByRecipeIds(Collection<Long> recipeIds);
+
+  @Query(value = """
+      SELECT mr.recipe_id FROM menus_recipes mr JOIN menus m ON m.id = mr.menu_id
+      WHERE m.author_id = :authorId""", nativeQuery = true)
+  List<Long> findLinkedRecipeIdsByAuthorId(Long authorId);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "menus_recipes"))
+  @Query(value = "DELETE FROM menus_recipes WHERE recipe_id IN (:recipeIds)", nativeQuery = true)
+  int removeRecipeLinks(Collection<Long> recipeIds);
+
+  @Modifying
+  @Query("UPDATE Menu m SET m.recipeCount = m.recipeCount + :delta, "
+      + "m.version = m.version + 1 WHERE m.id IN :ids")
+  void addToRecipeCount(Collection<Long> ids, long delta);
+
+  @Transactional
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "menus"))
+  @Query(value = """
+      UPDATE menus t SET recipe_count = counted.n, version = t.version + 1
+      FROM (SELECT x.id, COUNT(j.menu_id) AS n FROM menus x
+            LEFT JOIN menus_recipes j ON j.menu_id = x.id GROUP BY x.id) counted
+      WHERE t.id = counted.id AND t.recipe_count <> counted.n""", nativeQuery = true)
+  int reconcileRecipeCounts();
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.MenuView(
+          m.id, m.name, m.createdAt, m.imageKey, a.id, a.username, m.recipeCount, m.version,
+          a.version)
+      FROM Menu m LEFT JOIN m.author a""")
+  Stream<MenuView> streamAll();
+
+  boolean existsByIdAndAuthorId(Long id, Long authorId);
 }
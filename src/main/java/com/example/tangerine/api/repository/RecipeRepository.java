@@ -1,14 +1,207 @@
 package com.example.tangerine.api.repository;
 
 import com.example.tangerine.api.domain.Recipe;
+import com.example.tangerine.api.repository.projection.EntityVersion;
+import com.example.tangerine.api.repository.projection.RecipeIngredientLink;
+import com.example.tangerine.api.repository.projection.RecipeSearchHit;
+import com.example.tangerine.api.repository.projection.RecipeView;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface RecipeRepository extends JpaRepository<Recipe, Long> {
+public interface RecipeRepository extends JpaRepository<Recipe, Long>, RecipeViewQueries {
+  @EntityGraph("Recipe.menus")
+  Optional<Recipe> findWithMenusById(Long id);
+
+  @EntityGraph("Recipe.ingredients")
+  Optional<Recipe> findWithIngredientsById(Long id);
+
+  @Transactional
   @Modifying
-  @Query("UPDATE Recipe r SET r.imageKey = :imageKey where r.id = :id")
+  @Query("UPDATE Recipe r SET r.imageKey = :imageKey, "
+      + "r.version = r.version + 1 where r.id = :id")
   void updateImageKeyById(Long id, String imageKey);
+
+  // an empty key tells an entity without image apart from a missing entity
+  @Query("SELECT COALESCE(r.imageKey, '') FROM Recipe r WHERE r.id = :id")
+  Optional<String> findImageKeyById(Long id);
+
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.EntityVersion(
+          r.version, a.version)
+      FROM Recipe r LEFT JOIN r.author a
+      WHERE r.id = :id""")
+  Optional<EntityVersion> findVersionById(Long id);
+
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.RecipeView(
+          r.id, r.name, r.description, r.secondsDuration, r.productsCost, r.createdAt,
+          r.complexity, r.imageKey, a.id, a.username, r.commentCount, r.ingredientCount,
+          r.menuCount, r.version, a.version)
+      FROM Recipe r LEFT JOIN r.author a
+      WHERE r.id = :id""")
+  Optional<RecipeView> findViewById(Long id);
+
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.RecipeView(
+          r.id, r.name, r.description, r.secondsDuration, r.productsCost, r.createdAt,
+          r.complexity, r.imageKey, a.id, a.username, r.commentCount, r.ingredientCount,
+          r.menuCount, r.version, a.version)
+      FROM Recipe r LEFT JOIN r.author a
+      ORDER BY r.createdAt, r.id""")
+  List<RecipeView> findFirstPage(Pageable pageable);
+
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.RecipeView(
+          r.id, r.name, r.description, r.secondsDuration, r.productsCost, r.createdAt,
+          r.complexity, r.imageKey, a.id, a.username, r.commentCount, r.ingredientCount,
+          r.menuCount, r.version, a.version)
+      FROM Recipe r LEFT JOIN r.author a
+      WHERE r.createdAt > :createdAt OR (r.createdAt = :createdAt AND r.id > :id)
+      ORDER BY r.createdAt, r.id""")
+  List<RecipeView> findPageAfter(Instant createdAt, Long id, Pageable pageable);
+
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.RecipeView(
+          r.id, r.name, r.description, r.secondsDuration, r.productsCost, r.createdAt,
+          r.complexity, r.imageKey, a.id, a.username, r.commentCount, r.ingredientCount,
+          r.menuCount, r.version, a.version)
+      FROM Recipe r JOIN r.author a
+      WHERE a.id = :authorId
+      ORDER BY r.createdAt DESC, r.id DESC""")
+  List<RecipeView> findLatestByAuthorId(Long authorId, Pageable pageable);
+
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.RecipeView(
+          r.id, r.name, r.description, r.secondsDuration, r.productsCost, r.createdAt,
+          r.complexity, r.imageKey, a.id, a.username, r.commentCount, r.ingredientCount,
+          r.menuCount, r.version, a.version)
+      FROM Recipe r LEFT JOIN r.author a
+      WHERE r.id IN :ids""")
+  List<RecipeView> findViewsByIdIn(Collection<Long> ids);
+
+  @Query(value = """
+      SELECT r.id AS id, ts_rank(r.search_vector, q.query) AS score
+      FROM recipes r, websearch_to_tsquery('english', :text) AS q(query)
+      WHERE r.search_vector @@ q.query
+      ORDER BY score DESC, r.id DESC""",
+      nativeQuery = true)
+  List<RecipeSearchHit> searchFirstPage(String text, Pageable pageable);
+
+  @Query(value = """
+      SELECT r.id AS id, ts_rank(r.search_vector, q.query) AS score
+      FROM recipes r, websearch_to_tsquery('english', :text) AS q(query)
+      WHERE r.search_vector @@ q.query
+        AND (ts_rank(r.search_vector, q.query), r.id) < (CAST(:score AS real), :id)
+      ORDER BY score DESC, r.id DESC""",
+      nativeQuery = true)
+  List<RecipeSearchHit> searchPageAfter(String text, float score, Long id, Pageable pageable);
+
+  @Query("SELECT r.id FROM Recipe r WHERE r.id IN :ids")
+  Set<Long> findExistingIds(Collection<Long> ids);
+
+  @Query(value = "SELECT ingredient_id FROM recipes_ingredients WHERE recipe_id = :id",
+      nativeQuery = true)
+  Set<Long> findIngredientIdsById(Long id);
+
+  @Query("SELECT r.id FROM Recipe r WHERE r.author.id = :authorId")
+  List<Long> findIdsByAuthorId(Long authorId);
+
+  @Query(value = "SELECT ingredient_id FROM recipes_ingredients WHERE recipe_id IN (:ids)",
+      nativeQuery = true)
+  List<Long> findLinkedIngredientIdsByIdIn(Collection<Long> ids);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+  @Query(value = """
+      SELECT recipe_id AS recipeId, ingredient_id AS ingredientId
+      FROM recipes_ingredients""", nativeQuery = true)
+  Stream<RecipeIngredientLink> streamIngredientLinks();
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipes_ingredients"))
+  @Query(value = """
+      INSERT INTO recipes_ingredients (recipe_id, ingredient_id)
+      SELECT :id, i.id FROM ingredients i
+      WHERE i.id IN (:ingredientIds) AND NOT EXISTS (
+          SELECT 1 FROM recipes_ingredients ri
+          WHERE ri.recipe_id = :id AND ri.ingredient_id = i.id)""",
+      nativeQuery = true)
+  int addIngredients(Long id, Collection<Long> ingredientIds);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipes_ingredients"))
+  @Query(value = """
+      DELETE FROM recipes_ingredients
+      WHERE recipe_id = :id AND ingredient_id IN (:ingredientIds)""", nativeQuery = true)
+  int removeIngredients(Long id, Collection<Long> ingredientIds);
+
+  @Modifying
+  @Query("UPDATE Recipe r SET r.commentCount = r.commentCount + :delta, "
+      + "r.version = r.version + 1 WHERE r.id = :id")
+  void addToCommentCount(Long id, long delta);
+
+  @Modifying
+  @Query("UPDATE Recipe r SET r.ingredientCount = r.ingredientCount + :delta, "
+      + "r.version = r.version + 1 WHERE r.id IN :ids")
+  void addToIngredientCount(Collection<Long> ids, long delta);
+
+  @Modifying
+  @Query("UPDATE Recipe r SET r.menuCount = r.menuCount + :delta, "
+      + "r.version = r.version + 1 WHERE r.id IN :ids")
+  void addToMenuCount(Collection<Long> ids, long delta);
+
+  @Transactional
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipes"))
+  @Query(value = """
+      UPDATE recipes t SET comment_count = counted.n, version = t.version + 1
+      FROM (SELECT x.id, COUNT(j.recipe_id) AS n FROM recipes x
+            LEFT JOIN comments j ON j.recipe_id = x.id GROUP BY x.id) counted
+      WHERE t.id = counted.id AND t.comment_count <> counted.n""", nativeQuery = true)
+  int reconcileCommentCounts();
+
+  @Transactional
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipes"))
+  @Query(value = """
+      UPDATE recipes t SET ingredient_count = counted.n, version = t.version + 1
+      FROM (SELECT x.id, COUNT(j.recipe_id) AS n FROM recipes x
+            LEFT JOIN recipes_ingredients j ON j.recipe_id = x.id GROUP BY x.id) counted
+      WHERE t.id = counted.id AND t.ingredient_count <> counted.n""", nativeQuery = true)
+  int reconcileIngredientCounts();
+
+  @Transactional
+  @Modifying
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipes"))
+  @Query(value = """
+      UPDATE recipes t SET menu_count = counted.n, version = t.version + 1
+      FROM (SELECT x.id, COUNT(j.recipe_id) AS n FROM recipes x
+            LEFT JOIN menus_recipes j ON j.recipe_id = x.id GROUP BY x.id) counted
+      WHERE t.id = counted.id AND t.menu_count <> counted.n""", nativeQuery = true)
+  int reconcileMenuCounts();
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.RecipeView(
+          r.id, r.name, r.description, r.secondsDuration, r.productsCost, r.createdAt,
+          r.complexity, r.imageKey, a.id, a.username, r.commentCount, r.ingredientCount,
+          r.menuCount, r.version, a.version)
+      FROM Recipe r LEFT JOIN r.author a""")
+  Stream<RecipeView> streamAll();
+
+  boolean existsByIdAndAuthorId(Long id, Long authorId);
 }
@@ -0,0 +1,65 @@
+package com.example.tangerine.api.repository;
+
+import com.example.tangerine.api.domain.Complexity;
+import com.example.tangerine.api.domain.Recipe;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class RecipeSpecifications {
+
+  private RecipeSpecifications() {
+  }
+
+  public static Specification<Recipe> hasComplexity(Complexity complexity) {
+    return complexity == null
+        ? null
+        : (root, query, cb) -> cb.equal(root.get("complexity"), complexity);
+  }
+
+  public static Specification<Recipe> hasAuthor(Long authorId) {
+    return authorId == null
+        ? null
+        : (root, query, cb) -> cb.equal(root.get("author").get("id"), authorId);
+  }
+
+  public static Specification<Recipe> durationBetween(Long min, Long max) {
+    return between("secondsDuration", min, max);
+  }
+
+  public static Specification<Recipe> costBetween(Long min, Long max) {
+    return between("productsCost", min, max);
+  }
+
+  public static Specification<Recipe> hasValue(String attribute) {
+    return (root, query, cb) -> cb.isNotNull(root.get(attribute));
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public static Specification<Recipe> after(String attribute, Sort.Direction direction,
+                                            Comparable value, Long id) {
+    return (root, query, cb) -> {
+      Expression<Comparable> key = root.get(attribute);
+      Path<Long> recipeId = root.get("id");
+      return direction.isAscending()
+          ? cb.or(cb.greaterThan(key, value),
+              cb.and(cb.equal(key, value), cb.greaterThan(recipeId, id)))
+          : cb.or(cb.lessThan(key, value),
+              cb.and(cb.equal(key, value), cb.lessThan(recipeId, id)));
+    };
+  }
+
+  private static Specification<Recipe> between(String attribute, Long min, Long max) {
+    if (min == null && max == null) {
+      return null;
+    }
+    return (root, query, cb) -> {
+      Path<Long> value = root.get(attribute);
+      if (min == null) {
+        return cb.le(value, max);
+      }
+      return max == null ? cb.ge(value, min) : cb.between(value, min, max);
+    };
+  }
+}
@@ -0,0 +1,11 @@
+package com.example.tangerine.api.repository;
+
+import com.example.tangerine.api.domain.Recipe;
+import com.example.tangerine.api.repository.projection.RecipeView;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface RecipeViewQueries {
+  List<RecipeView> findViews(Specification<Recipe> specification, Sort sort, int limit);
+}
@@ -0,0 +1,40 @@
+package com.example.tangerine.api.repository;
+
+import com.example.tangerine.api.domain.Recipe;
+import com.example.tangerine.api.domain.User;
+import com.example.tangerine.api.repository.projection.RecipeView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.JoinType;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+@RequiredArgsConstructor
+public class RecipeViewQueriesImpl implements RecipeViewQueries {
+
+  private final EntityManager entityManager;
+
+  @Override
+  public List<RecipeView> findViews(Specification<Recipe> specification, Sort sort, int limit) {
+    var cb = entityManager.getCriteriaBuilder();
+    var query = cb.createQuery(RecipeView.class);
+    var recipe = query.from(Recipe.class);
+    var author = recipe.<Recipe, User>join("author", JoinType.LEFT);
+    query.select(cb.construct(RecipeView.class,
+        recipe.get("id"), recipe.get("name"), recipe.get("description"),
+        recipe.get("secondsDuration"), recipe.get("productsCost"), recipe.get("createdAt"),
+        recipe.get("complexity"), recipe.get("imageKey"), author.get("id"),
+        author.get("username"), recipe.get("commentCount"), recipe.get("ingredientCount"),
+        recipe.get("menuCount"), recipe.get("version"), author.get("version")));
+    var predicate = specification == null
+        ? null
+        : specification.toPredicate(recipe, query, cb);
+    if (predicate != null) {
+      query.where(predicate);
+    }
+    query.orderBy(QueryUtils.toOrders(sort, recipe, cb));
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+}
@@ -1,11 +1,16 @@
 package com.example.tangerine.api.repository;
 
 import com.example.tangerine.api.domain.User;
+import com.example.tangerine.api.repository.projection.UserView;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -13,7 +18,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
   boolean existsByUsername(String username);
 
+  @Transactional
   @Modifying
-  @Query("UPDATE User u SET u.imageKey = :imageKey where u.id = :id")
+  @Query("UPDATE User u SET u.imageKey = :imageKey, "
+      + "u.version = u.version + 1 where u.id = :id")
   void updateImageKeyById(Long id, String imageKey);
+
+  @Query("SELECT COALESCE(u.imageKey, '') FROM User u WHERE u.id = :id")
+  Optional<String> findImageKeyById(Long id);
+
+  @Query("SELECT u.version FROM User u WHERE u.id = :id")
+  Optional<Long> findVersionById(Long id);
+
+  @Query("SELECT u FROM User u ORDER BY u.createdAt, u.id")
+  List<User> findFirstPage(Pageable pageable);
+
+  @Query("""
+      SELECT u FROM User u
+      WHERE u.createdAt > :createdAt OR (u.createdAt = :createdAt AND u.id > :id)
+      ORDER BY u.createdAt, u.id""")
+  List<User> findPageAfter(Instant createdAt, Long id, Pageable pageable);
+
+  @Query("""
+      SELECT new com.example.tangerine.api.repository.projection.UserView(
+          u.id, u.username, u.email, u.phoneNumber, u.imageKey, u.createdAt)
+      FROM User u
+      WHERE u.id = :id""")
+  Optional<UserView> findViewById(Long id);
+
+  @Query("SELECT u.id FROM User u WHERE u.username = :username")
+  Optional<Long> findIdByUsername(String username);
 }
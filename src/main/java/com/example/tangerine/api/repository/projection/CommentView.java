@@ -0,0 +1,13 @@
+package com.example.tangerine.api.repository.projection;
+
+import java.time.Instant;
+import lombok.Value;
+
+@Value
+public class CommentView {
+  Long id;
+  String text;
+  Instant createdAt;
+  Long authorId;
+  String authorUsername;
+}
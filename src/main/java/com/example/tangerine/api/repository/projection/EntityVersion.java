@@ -0,0 +1,19 @@
+package com.example.tangerine.api.repository.projection;
+
+import com.example.tangerine.api.domain.User;
+import lombok.Value;
+
+// The author version is part of the tag because recipe and menu payloads show its username.
+@Value
+public class EntityVersion {
+  long version;
+  Long authorVersion;
+
+  public static EntityVersion of(long version) {
+    return new EntityVersion(version, null);
+  }
+
+  public static EntityVersion of(long version, User author) {
+    return new EntityVersion(version, author == null ? null : author.getVersion());
+  }
+}
@@ -0,0 +1,9 @@
+package com.example.tangerine.api.repository.projection;
+
+import lombok.Value;
+
+@Value
+public class IngredientRef {
+  Long id;
+  String name;
+}
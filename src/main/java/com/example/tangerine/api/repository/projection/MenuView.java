@@ -0,0 +1,17 @@
+package com.example.tangerine.api.repository.projection;
+
+import java.time.Instant;
+import lombok.Value;
+
+@Value
+public class MenuView {
+  Long id;
+  String name;
+  Instant createdAt;
+  String imageKey;
+  Long authorId;
+  String authorUsername;
+  long recipeCount;
+  long version;
+  Long authorVersion;
+}
@@ -0,0 +1,7 @@
+package com.example.tangerine.api.repository.projection;
+
+public interface RecipeSearchHit {
+  Long getId();
+
+  Float getScore();
+}
@@ -0,0 +1,24 @@
+package com.example.tangerine.api.repository.projection;
+
+import com.example.tangerine.api.domain.Complexity;
+import java.time.Instant;
+import lombok.Value;
+
+@Value
+public class RecipeView {
+  Long id;
+  String name;
+  String description;
+  Long secondsDuration;
+  Long productsCost;
+  Instant createdAt;
+  Complexity complexity;
+  String imageKey;
+  Long authorId;
+  String authorUsername;
+  long commentCount;
+  long ingredientCount;
+  long menuCount;
+  long version;
+  Long authorVersion;
+}
@@ -0,0 +1,14 @@
+package com.example.tangerine.api.repository.projection;
+
+import java.time.Instant;
+import lombok.Value;
+
+@Value
+public class UserView {
+  Long id;
+  String username;
+  String email;
+  String phoneNumber;
+  String imageKey;
+  Instant createdAt;
+}
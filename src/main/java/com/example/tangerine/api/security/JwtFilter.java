@@ -12,8 +12,10 @@ import java.io.IOException;
 import java.util.Optional;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -27,29 +29,34 @@ public class JwtFilter extends OncePerRequestFilter {
 
   private final JwtTokenProvider jwtProvider;
   private final UserDetailsService userDetailsService;
+  private final VerifiedTokenCache verifiedTokenCache;
+  @Value("${jwt.stateless}")
+  private boolean stateless;
 
   @Override
   protected void doFilterInternal(@NonNull HttpServletRequest request,
                                   @NonNull HttpServletResponse response,
                                   @NonNull FilterChain filterChain)
       throws ServletException, IOException {
-    var maybeToken = getTokenFromRequest(request);
-    if (maybeToken.isPresent()) {
-      var token = maybeToken.get();
-      if (jwtProvider.toDecodedJWT(token).isPresent()) {
-        var username = jwtProvider.getUsernameFromToken(token);
-        var userDetails = userDetailsService.loadUserByUsername(username);
-        var authentication = new UsernamePasswordAuthenticationToken(
-            userDetails,
-            null,
-            userDetails.getAuthorities()
-        );
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-      }
-    }
+    getTokenFromRequest(request)
+        .flatMap(this::authenticate)
+        .ifPresent(userDetails -> SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+            )));
     filterChain.doFilter(request, response);
   }
 
+  private Optional<UserDetails> authenticate(String token) {
+    if (stateless) {
+      return verifiedTokenCache.resolve(token).map(UserDetails.class::cast);
+    }
+    return jwtProvider.toDecodedJWT(token)
+        .map(jwt -> userDetailsService.loadUserByUsername(jwt.getSubject()));
+  }
+
   private Optional<String> getTokenFromRequest(HttpServletRequest request) {
     var bearer = request.getHeader("Authorization");
     if (hasText(bearer) && bearer.startsWith("Bearer ")) {
@@ -0,0 +1,64 @@
+package com.example.tangerine.api.security;
+
+import java.time.Instant;
+import java.util.Collection;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+public class JwtPrincipal implements UserDetails {
+  private final Long id;
+  private final String username;
+  private final Collection<? extends GrantedAuthority> authorities;
+  private final Instant expiresAt;
+
+  public JwtPrincipal(Long id, String username,
+                      Collection<? extends GrantedAuthority> authorities, Instant expiresAt) {
+    this.id = id;
+    this.username = username;
+    this.authorities = authorities;
+    this.expiresAt = expiresAt;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public boolean isExpiredAt(Instant instant) {
+    return expiresAt != null && !instant.isBefore(expiresAt);
+  }
+
+  @Override
+  public Collection<? extends GrantedAuthority> getAuthorities() {
+    return authorities;
+  }
+
+  @Override
+  public String getPassword() {
+    return null;
+  }
+
+  @Override
+  public String getUsername() {
+    return username;
+  }
+
+  @Override
+  public boolean isAccountNonExpired() {
+    return true;
+  }
+
+  @Override
+  public boolean isAccountNonLocked() {
+    return true;
+  }
+
+  @Override
+  public boolean isCredentialsNonExpired() {
+    return true;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return true;
+  }
+}
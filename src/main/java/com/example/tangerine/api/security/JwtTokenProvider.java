@@ -1,15 +1,18 @@
 package com.example.tangerine.api.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.example.tangerine.api.domain.Role;
+import jakarta.annotation.PostConstruct;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -21,6 +24,18 @@ public class JwtTokenProvider {
   @Value("${jwt.issuer}")
   private String jwtIssuer;
 
+  private Algorithm algorithm;
+
+  private JWTVerifier verifier;
+
+  @PostConstruct
+  void init() {
+    algorithm = Algorithm.HMAC256(jwtSecret);
+    verifier = JWT.require(algorithm)
+        .withIssuer(jwtIssuer)
+        .build();
+  }
+
   public String generateToken(Long id, String username, List<Role> roles) {
     return JWT.create()
         .withIssuer(jwtIssuer)
@@ -31,25 +46,26 @@ public class JwtTokenProvider {
             .plusDays(15)
             .atStartOfDay(ZoneId.systemDefault())
             .toInstant())
-        .sign(Algorithm.HMAC256(jwtSecret));
+        .sign(algorithm);
   }
 
   public Optional<DecodedJWT> toDecodedJWT(String token) {
     try {
-      return Optional.of(JWT.require(Algorithm.HMAC256(jwtSecret))
-          .withIssuer(jwtIssuer)
-          .build()
-          .verify(token));
+      return Optional.of(verifier.verify(token));
     } catch (JWTVerificationException exception) {
       return Optional.empty();
     }
   }
 
-  public String getUsernameFromToken(String token) {
-    return JWT.require(Algorithm.HMAC256(jwtSecret))
-        .withIssuer(jwtIssuer)
-        .build()
-        .verify(token)
-        .getSubject();
+  public Optional<JwtPrincipal> toPrincipal(String token) {
+    return toDecodedJWT(token).map(jwt -> {
+      var roles = Optional.ofNullable(jwt.getClaim("roles").asList(String.class))
+          .orElse(List.of());
+      return new JwtPrincipal(
+          jwt.getClaim("id").asLong(),
+          jwt.getSubject(),
+          roles.stream().map(SimpleGrantedAuthority::new).toList(),
+          jwt.getExpiresAtAsInstant());
+    });
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package com.example.tangerine.api.security;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class VerifiedTokenCache {
+  private final JwtTokenProvider jwtProvider;
+  private final Cache<String, JwtPrincipal> principals;
+
+  public VerifiedTokenCache(JwtTokenProvider jwtProvider,
+                            @Value("${jwt.token-cache.max-size}") long maxSize,
+                            @Value("${jwt.token-cache.ttl}") Duration ttl) {
+    this.jwtProvider = jwtProvider;
+    this.principals = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .build();
+  }
+
+  public Optional<JwtPrincipal> resolve(String token) {
+    var key = hash(token);
+    var cached = principals.getIfPresent(key);
+    if (cached != null) {
+      if (cached.isExpiredAt(Instant.now())) {
+        principals.invalidate(key);
+        return Optional.empty();
+      }
+      return Optional.of(cached);
+    }
+    var principal = jwtProvider.toPrincipal(token);
+    principal.ifPresent(verified -> principals.put(key, verified));
+    return principal;
+  }
+
+  private static String hash(String token) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(UTF_8));
+      return HexFormat.of().formatHex(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -3,6 +3,8 @@ package com.example.tangerine.api.security.checker;
 import com.example.tangerine.api.domain.Comment;
 import com.example.tangerine.api.exception.CommentNotFoundException;
 import com.example.tangerine.api.repository.CommentRepository;
+import com.example.tangerine.api.service.RequestLookupCache;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -10,26 +12,31 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class CommentChecker {
   private final CommentRepository commentRepository;
+  private final UserIdResolver userIdResolver;
+  private final RequestLookupCache lookups;
 
   public boolean isCommentOrRecipeAuthor(Long id, String username) {
-    if (id == null || username == null) {
-      return false;
-    }
-    var comment = getComment(id);
-    return comment.getAuthor().getUsername().equals(username)
-        || comment.getRecipe().getAuthor().getUsername().equals(username);
+    return check(id, username, userId -> lookups.get(
+        "Comment#%s:owner-or-recipe-owner:%s".formatted(id, userId),
+        () -> commentRepository.isCommentOrRecipeAuthor(id, userId)));
   }
 
   public boolean isCommentAuthor(Long id, String username) {
+    return check(id, username, userId -> lookups.isOwner(Comment.class, id, userId,
+        () -> commentRepository.existsByIdAndAuthorId(id, userId)));
+  }
+
+  private boolean check(Long id, String username, Function<Long, Boolean> ownership) {
     if (id == null || username == null) {
       return false;
     }
-    return getComment(id).getAuthor().getUsername().equals(username);
-  }
-
-  private Comment getComment(Long id) {
-    return commentRepository.findById(id).orElseThrow(
-        () -> new CommentNotFoundException("Comment with id %s not found".formatted(id))
-    );
+    if (userIdResolver.resolve(username).map(ownership).orElse(false)) {
+      lookups.markExists(Comment.class, id);
+      return true;
+    }
+    if (!lookups.exists(Comment.class, id, () -> commentRepository.existsById(id))) {
+      throw new CommentNotFoundException("Comment with id %s not found".formatted(id));
+    }
+    return false;
   }
 }
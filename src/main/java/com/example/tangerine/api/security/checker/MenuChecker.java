@@ -1,7 +1,9 @@
 package com.example.tangerine.api.security.checker;
 
+import com.example.tangerine.api.domain.Menu;
 import com.example.tangerine.api.exception.MenuNotFoundException;
 import com.example.tangerine.api.repository.MenuRepository;
+import com.example.tangerine.api.service.RequestLookupCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -9,14 +11,24 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class MenuChecker {
   private final MenuRepository menuRepository;
+  private final UserIdResolver userIdResolver;
+  private final RequestLookupCache lookups;
 
   public boolean isAuthor(Long id, String username) {
     if (id == null || username == null) {
       return false;
     }
-    var menu = menuRepository.findById(id).orElseThrow(
-        () -> new MenuNotFoundException("Menu with id %s not found".formatted(id))
-    );
-    return menu.getAuthor().getUsername().equals(username);
+    var isAuthor = userIdResolver.resolve(username)
+        .map(userId -> lookups.isOwner(Menu.class, id, userId,
+            () -> menuRepository.existsByIdAndAuthorId(id, userId)))
+        .orElse(false);
+    if (isAuthor) {
+      lookups.markExists(Menu.class, id);
+      return true;
+    }
+    if (!lookups.exists(Menu.class, id, () -> menuRepository.existsById(id))) {
+      throw new MenuNotFoundException("Menu with id %s not found".formatted(id));
+    }
+    return false;
   }
 }
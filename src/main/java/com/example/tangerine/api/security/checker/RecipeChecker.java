@@ -1,7 +1,9 @@
 package com.example.tangerine.api.security.checker;
 
+import com.example.tangerine.api.domain.Recipe;
 import com.example.tangerine.api.exception.RecipeNotFoundException;
 import com.example.tangerine.api.repository.RecipeRepository;
+import com.example.tangerine.api.service.RequestLookupCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -9,14 +11,24 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class RecipeChecker {
   private final RecipeRepository recipeRepository;
+  private final UserIdResolver userIdResolver;
+  private final RequestLookupCache lookups;
 
   public boolean isAuthor(Long id, String username) {
     if (id == null || username == null) {
       return false;
     }
-    var recipe = recipeRepository.findById(id).orElseThrow(
-        () -> new RecipeNotFoundException("Recipe with id %s not found".formatted(id))
-    );
-    return recipe.getAuthor().getUsername().equals(username);
+    var isAuthor = userIdResolver.resolve(username)
+        .map(userId -> lookups.isOwner(Recipe.class, id, userId,
+            () -> recipeRepository.existsByIdAndAuthorId(id, userId)))
+        .orElse(false);
+    if (isAuthor) {
+      lookups.markExists(Recipe.class, id);
+      return true;
+    }
+    if (!lookups.exists(Recipe.class, id, () -> recipeRepository.existsById(id))) {
+      throw new RecipeNotFoundException("Recipe with id %s not found".formatted(id));
+    }
+    return false;
   }
 }
@@ -1,7 +1,9 @@
 package com.example.tangerine.api.security.checker;
 
+import com.example.tangerine.api.domain.User;
 import com.example.tangerine.api.exception.UserNotFoundException;
 import com.example.tangerine.api.repository.UserRepository;
+import com.example.tangerine.api.service.RequestLookupCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -9,14 +11,20 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class UserChecker {
   private final UserRepository userRepository;
+  private final UserIdResolver userIdResolver;
+  private final RequestLookupCache lookups;
 
   public boolean check(Long id, String username) {
     if (id == null || username == null) {
       return false;
     }
-    var user = userRepository.findById(id).orElseThrow(
-        () -> new UserNotFoundException("User with id %s not found".formatted(id))
-    );
-    return user.getUsername().equals(username);
+    if (userIdResolver.resolve(username).filter(id::equals).isPresent()) {
+      lookups.markExists(User.class, id);
+      return true;
+    }
+    if (!lookups.exists(User.class, id, () -> userRepository.existsById(id))) {
+      throw new UserNotFoundException("User with id %s not found".formatted(id));
+    }
+    return false;
   }
 }
@@ -0,0 +1,28 @@
+package com.example.tangerine.api.security.checker;
+
+import com.example.tangerine.api.repository.UserRepository;
+import com.example.tangerine.api.security.JwtPrincipal;
+import com.example.tangerine.api.service.RequestLookupCache;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class UserIdResolver {
+  private final UserRepository userRepository;
+  private final RequestLookupCache lookups;
+
+  public Optional<Long> resolve(String username) {
+    var authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null
+        && authentication.getPrincipal() instanceof JwtPrincipal principal
+        && principal.getId() != null
+        && principal.getUsername().equals(username)) {
+      return Optional.of(principal.getId());
+    }
+    return lookups.get("User@%s:id".formatted(username),
+        () -> userRepository.findIdByUsername(username));
+  }
+}
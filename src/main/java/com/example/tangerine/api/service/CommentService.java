@@ -1,17 +1,22 @@
 package com.example.tangerine.api.service;
 
 import com.example.tangerine.api.domain.Comment;
-import java.util.List;
+import com.example.tangerine.api.repository.projection.CommentView;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface CommentService {
   Comment create(Comment comment, Long recipeId, String username);
 
   Comment update(Comment comment);
 
-  List<Comment> findAll();
+  CursorPage<Comment> findAll(Cursor cursor, int limit);
+
+  CursorPage<CommentView> findByRecipe(Long recipeId, TimelineCursor cursor, int limit);
 
   Optional<Comment> findById(Long commentId);
 
+  void exportAll(Consumer<CommentView> consumer);
+
   void deleteById(Long commentId);
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.example.tangerine.api.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.example.tangerine.api.exception.InvalidCursorException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import lombok.Value;
+
+@Value
+public class Cursor implements PageCursor {
+  Instant createdAt;
+  Long id;
+
+  public static Cursor decode(String token) {
+    if (token == null || token.isBlank()) {
+      return null;
+    }
+    try {
+      var parts = new String(Base64.getUrlDecoder().decode(token), UTF_8).split(":");
+      if (parts.length != 3) {
+        throw new InvalidCursorException("Invalid cursor %s".formatted(token));
+      }
+      var createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+      return new Cursor(createdAt, Long.parseLong(parts[2]));
+    } catch (IllegalArgumentException | DateTimeException e) {
+      throw new InvalidCursorException("Invalid cursor %s".formatted(token));
+    }
+  }
+
+  @Override
+  public String encode() {
+    var raw = "%d:%d:%d".formatted(createdAt.getEpochSecond(), createdAt.getNano(), id);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(UTF_8));
+  }
+}
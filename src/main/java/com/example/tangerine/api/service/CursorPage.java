@@ -0,0 +1,38 @@
+package com.example.tangerine.api.service;
+
+import java.util.List;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+@Value
+@AllArgsConstructor
+public class CursorPage<T> {
+  List<T> content;
+  PageCursor next;
+  PageCursor previous;
+
+  public CursorPage(List<T> content, PageCursor next) {
+    this(content, next, null);
+  }
+
+  public static Pageable request(int limit, int maxLimit) {
+    return PageRequest.of(0, Math.min(Math.max(limit, 1), maxLimit) + 1);
+  }
+
+  public static <T> CursorPage<T> of(List<T> rows, Pageable request,
+                                     Function<T, ? extends PageCursor> cursorOf) {
+    var limit = request.getPageSize() - 1;
+    if (rows.size() <= limit) {
+      return new CursorPage<>(List.copyOf(rows), null);
+    }
+    var content = List.copyOf(rows.subList(0, limit));
+    return new CursorPage<>(content, cursorOf.apply(content.get(limit - 1)));
+  }
+
+  public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+    return new CursorPage<>(content.stream().<R>map(mapper).toList(), next, previous);
+  }
+}
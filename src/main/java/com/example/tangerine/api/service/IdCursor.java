@@ -0,0 +1,30 @@
+package com.example.tangerine.api.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.example.tangerine.api.exception.InvalidCursorException;
+import java.util.Base64;
+import lombok.Value;
+
+@Value
+public class IdCursor implements PageCursor {
+  Long id;
+
+  public static IdCursor decode(String token) {
+    if (token == null || token.isBlank()) {
+      return null;
+    }
+    try {
+      var raw = new String(Base64.getUrlDecoder().decode(token), UTF_8);
+      return new IdCursor(Long.parseLong(raw));
+    } catch (IllegalArgumentException e) {
+      throw new InvalidCursorException("Invalid cursor %s".formatted(token));
+    }
+  }
+
+  @Override
+  public String encode() {
+    var raw = String.valueOf(id);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(UTF_8));
+  }
+}
@@ -0,0 +1,12 @@
+package com.example.tangerine.api.service;
+
+import lombok.Value;
+import org.springframework.core.io.Resource;
+
+@Value
+public class ImageContent {
+  Resource body;
+  String tag;
+  boolean immutable;
+  ObjectRange range;
+}
@@ -0,0 +1,40 @@
+package com.example.tangerine.api.service;
+
+import com.example.tangerine.api.exception.InvalidImageSizeException;
+import java.util.Locale;
+
+public enum ImageVariant {
+  SMALL(200),
+  MEDIUM(480),
+  LARGE(1024);
+
+  private final int maxDimension;
+
+  ImageVariant(int maxDimension) {
+    this.maxDimension = maxDimension;
+  }
+
+  public int getMaxDimension() {
+    return maxDimension;
+  }
+
+  public String getKey() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+
+  public String objectKey(String originalKey) {
+    return "%s/%s".formatted(originalKey, getKey());
+  }
+
+  public static ImageVariant fromKey(String key) {
+    if (key == null || key.isBlank()) {
+      return null;
+    }
+    for (var variant : values()) {
+      if (variant.getKey().equalsIgnoreCase(key.strip())) {
+        return variant;
+      }
+    }
+    throw new InvalidImageSizeException("Image size %s is not supported".formatted(key));
+  }
+}
@@ -0,0 +1,17 @@
+package com.example.tangerine.api.service;
+
+import java.util.List;
+import lombok.Value;
+
+@Value
+public class ImportReport {
+  int imported;
+  int failed;
+  List<LineError> errors;
+
+  @Value
+  public static class LineError {
+    long line;
+    String message;
+  }
+}
@@ -0,0 +1,27 @@
+package com.example.tangerine.api.service;
+
+import com.example.tangerine.api.exception.InvalidIngredientMatchException;
+import java.util.Locale;
+
+public enum IngredientMatch {
+  ALL,
+  ANY,
+  SUBSET;
+
+  public String getKey() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+
+  public static IngredientMatch fromKey(String key) {
+    if (key == null || key.isBlank()) {
+      return ALL;
+    }
+    for (var match : values()) {
+      if (match.getKey().equalsIgnoreCase(key.strip())) {
+        return match;
+      }
+    }
+    throw new InvalidIngredientMatchException(
+        "Ingredient match mode %s is not supported".formatted(key));
+  }
+}
@@ -1,9 +1,9 @@
 package com.example.tangerine.api.service;
 
 import com.example.tangerine.api.domain.Ingredient;
-import java.util.List;
 import java.util.Optional;
-import org.springframework.core.io.Resource;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.http.HttpRange;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface IngredientService {
@@ -11,15 +11,24 @@ public interface IngredientService {
 
   Ingredient update(Ingredient ingredient);
 
-  List<Ingredient> findAll();
+  CursorPage<Ingredient> findAll(Cursor cursor, int limit);
 
   Optional<Ingredient> findById(Long ingredientId);
 
   void deleteById(Long ingredientId);
 
-  String addImage(Long ingredientId, MultipartFile file);
+  CompletableFuture<String> addImage(Long ingredientId, MultipartFile file);
 
-  Resource getImage(Long ingredientId);
+  String getImageTag(Long ingredientId, ImageVariant variant);
+
+  CompletableFuture<ImageContent> getImage(Long ingredientId, ImageVariant variant,
+                                           HttpRange range);
+
+  PresignedUrl getImageUrl(Long ingredientId, ImageVariant variant);
+
+  PresignedUpload createImageUpload(Long ingredientId);
+
+  String confirmImage(Long ingredientId, String imageKey);
 
   void deleteImage(Long ingredientId);
 }
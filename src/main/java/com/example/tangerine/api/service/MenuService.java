@@ -2,10 +2,14 @@ package com.example.tangerine.api.service;
 
 import com.example.tangerine.api.domain.Menu;
 import com.example.tangerine.api.domain.Recipe;
+import com.example.tangerine.api.repository.projection.EntityVersion;
+import com.example.tangerine.api.repository.projection.MenuView;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import org.springframework.core.io.Resource;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import org.springframework.http.HttpRange;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface MenuService {
@@ -13,17 +17,36 @@ public interface MenuService {
 
   Menu update(Menu menu, List<Long> recipeIndices);
 
-  List<Menu> findAll();
+  CursorPage<MenuView> findAll(Cursor cursor, int limit);
 
   Optional<Menu> findById(Long menuId);
 
+  void exportAll(Consumer<MenuView> consumer);
+
+  Optional<MenuView> findViewById(Long menuId);
+
+  Optional<EntityVersion> findVersionById(Long menuId);
+
   void deleteById(Long menuId);
 
   Optional<Set<Recipe>> getRecipes(Long menuId);
 
-  String addImage(Long menuId, MultipartFile file);
+  void addRecipe(Long menuId, Long recipeId);
+
+  void removeRecipe(Long menuId, Long recipeId);
+
+  CompletableFuture<String> addImage(Long menuId, MultipartFile file);
+
+  String getImageTag(Long menuId, ImageVariant variant);
+
+  CompletableFuture<ImageContent> getImage(Long menuId, ImageVariant variant,
+                                           HttpRange range);
+
+  PresignedUrl getImageUrl(Long menuId, ImageVariant variant);
+
+  PresignedUpload createImageUpload(Long menuId);
 
-  Resource getImage(Long menuId);
+  String confirmImage(Long menuId, String imageKey);
 
   void deleteImage(Long menuId);
 }
@@ -0,0 +1,16 @@
+package com.example.tangerine.api.service;
+
+import lombok.Value;
+import org.springframework.core.io.Resource;
+
+@Value
+public class ObjectRange {
+  Resource content;
+  long first;
+  long last;
+  long totalLength;
+
+  public long getLength() {
+    return last - first + 1;
+  }
+}
@@ -0,0 +1,5 @@
+package com.example.tangerine.api.service;
+
+public interface PageCursor {
+  String encode();
+}
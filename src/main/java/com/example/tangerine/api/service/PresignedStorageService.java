@@ -0,0 +1,7 @@
+package com.example.tangerine.api.service;
+
+public interface PresignedStorageService {
+  PresignedUrl presignGet(String objectKey, String bucket);
+
+  PresignedUrl presignPut(String objectKey, String bucket);
+}
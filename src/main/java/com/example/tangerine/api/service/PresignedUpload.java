@@ -0,0 +1,12 @@
+package com.example.tangerine.api.service;
+
+import java.net.URI;
+import java.time.Instant;
+import lombok.Value;
+
+@Value
+public class PresignedUpload {
+  String imageKey;
+  URI url;
+  Instant expiresAt;
+}
@@ -0,0 +1,11 @@
+package com.example.tangerine.api.service;
+
+import java.net.URI;
+import java.time.Instant;
+import lombok.Value;
+
+@Value
+public class PresignedUrl {
+  URI url;
+  Instant expiresAt;
+}
@@ -0,0 +1,14 @@
+package com.example.tangerine.api.service;
+
+import com.example.tangerine.api.domain.Complexity;
+import lombok.Value;
+
+@Value
+public class RecipeFilter {
+  Complexity complexity;
+  Long minDuration;
+  Long maxDuration;
+  Long minCost;
+  Long maxCost;
+  Long authorId;
+}
@@ -0,0 +1,7 @@
+package com.example.tangerine.api.service;
+
+import java.io.InputStream;
+
+public interface RecipeImportService {
+  ImportReport importRecipes(InputStream ndjson, String username);
+}
@@ -1,13 +1,17 @@
 package com.example.tangerine.api.service;
 
-import com.example.tangerine.api.domain.Comment;
 import com.example.tangerine.api.domain.Ingredient;
 import com.example.tangerine.api.domain.Menu;
 import com.example.tangerine.api.domain.Recipe;
+import com.example.tangerine.api.repository.projection.EntityVersion;
+import com.example.tangerine.api.repository.projection.RecipeView;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import org.springframework.core.io.Resource;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpRange;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface RecipeService {
@@ -15,21 +19,46 @@ public interface RecipeService {
 
   Recipe update(Recipe recipe, List<Long> ingredientIndices);
 
-  List<Recipe> findAll();
+  CursorPage<RecipeView> findAll(Cursor cursor, int limit);
+
+  CursorPage<RecipeView> search(String text, SearchCursor cursor, int limit);
+
+  CursorPage<RecipeView> findByIngredients(Set<Long> ingredientIds, IngredientMatch match,
+                                           IdCursor cursor, int limit);
+
+  CursorPage<RecipeView> filter(RecipeFilter filter, RecipeSort sort, Sort.Direction direction,
+                                RecipeSortCursor cursor, int limit);
 
   Optional<Recipe> findById(Long recipeId);
 
-  Optional<Set<Menu>> getMenus(Long recipeId);
+  void exportAll(Consumer<RecipeView> consumer);
 
-  Optional<List<Comment>> getComments(Long recipeId);
+  Optional<RecipeView> findViewById(Long recipeId);
+
+  Optional<EntityVersion> findVersionById(Long recipeId);
+
+  Optional<Set<Menu>> getMenus(Long recipeId);
 
   void deleteById(Long recipeId);
 
   Optional<Set<Ingredient>> getIngredients(Long recipeId);
 
-  String addImage(Long recipeId, MultipartFile file);
+  void addIngredient(Long recipeId, Long ingredientId);
+
+  void removeIngredient(Long recipeId, Long ingredientId);
+
+  CompletableFuture<String> addImage(Long recipeId, MultipartFile file);
+
+  String getImageTag(Long recipeId, ImageVariant variant);
+
+  CompletableFuture<ImageContent> getImage(Long recipeId, ImageVariant variant,
+                                           HttpRange range);
+
+  PresignedUrl getImageUrl(Long recipeId, ImageVariant variant);
+
+  PresignedUpload createImageUpload(Long recipeId);
 
-  Resource getImage(Long recipeId);
+  String confirmImage(Long recipeId, String imageKey);
 
   void deleteImage(Long recipeId);
 }
@@ -0,0 +1,67 @@
+package com.example.tangerine.api.service;
+
+import com.example.tangerine.api.exception.InvalidSortException;
+import com.example.tangerine.api.repository.projection.RecipeView;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import org.springframework.data.domain.Sort;
+
+public enum RecipeSort {
+  CREATED("createdAt", Sort.Direction.DESC),
+  COST("productsCost", Sort.Direction.ASC),
+  DURATION("secondsDuration", Sort.Direction.ASC);
+
+  private final String attribute;
+  private final Sort.Direction defaultDirection;
+
+  RecipeSort(String attribute, Sort.Direction defaultDirection) {
+    this.attribute = attribute;
+    this.defaultDirection = defaultDirection;
+  }
+
+  public String getAttribute() {
+    return attribute;
+  }
+
+  public String getKey() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+
+  public Sort toSort(Sort.Direction direction) {
+    return Sort.by(direction, attribute, "id");
+  }
+
+  // Creation time travels as epoch microseconds, the precision PostgreSQL stores.
+  public long keyOf(RecipeView recipe) {
+    return switch (this) {
+      case CREATED -> ChronoUnit.MICROS.between(Instant.EPOCH, recipe.getCreatedAt());
+      case COST -> recipe.getProductsCost();
+      case DURATION -> recipe.getSecondsDuration();
+    };
+  }
+
+  public Comparable<?> valueOf(long key) {
+    return this == CREATED ? Instant.EPOCH.plus(key, ChronoUnit.MICROS) : Long.valueOf(key);
+  }
+
+  public Sort.Direction direction(String direction) {
+    if (direction == null || direction.isBlank()) {
+      return defaultDirection;
+    }
+    return Sort.Direction.fromOptionalString(direction.strip()).orElseThrow(
+        () -> new InvalidSortException("Sort direction %s is not supported".formatted(direction)));
+  }
+
+  public static RecipeSort fromKey(String key) {
+    if (key == null || key.isBlank()) {
+      return CREATED;
+    }
+    for (var sort : values()) {
+      if (sort.getKey().equalsIgnoreCase(key.strip())) {
+        return sort;
+      }
+    }
+    throw new InvalidSortException("Sort %s is not supported".formatted(key));
+  }
+}
@@ -0,0 +1,42 @@
+package com.example.tangerine.api.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.example.tangerine.api.exception.InvalidCursorException;
+import java.util.Base64;
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+@Value
+public class RecipeSortCursor implements PageCursor {
+  RecipeSort sort;
+  Sort.Direction direction;
+  long key;
+  Long id;
+
+  public static RecipeSortCursor decode(String token) {
+    if (token == null || token.isBlank()) {
+      return null;
+    }
+    try {
+      var parts = new String(Base64.getUrlDecoder().decode(token), UTF_8).split(":");
+      if (parts.length != 4) {
+        throw new InvalidCursorException("Invalid cursor %s".formatted(token));
+      }
+      return new RecipeSortCursor(RecipeSort.valueOf(parts[0]),
+          Sort.Direction.valueOf(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+    } catch (IllegalArgumentException e) {
+      throw new InvalidCursorException("Invalid cursor %s".formatted(token));
+    }
+  }
+
+  public boolean matches(RecipeSort sort, Sort.Direction direction) {
+    return this.sort == sort && this.direction == direction;
+  }
+
+  @Override
+  public String encode() {
+    var raw = "%s:%s:%d:%d".formatted(sort.name(), direction.name(), key, id);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(UTF_8));
+  }
+}
@@ -0,0 +1,49 @@
+package com.example.tangerine.api.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+@Component
+public class RequestLookupCache {
+  private static final String ATTRIBUTE = RequestLookupCache.class.getName();
+
+  public boolean exists(Class<?> type, Long id, BooleanSupplier lookup) {
+    return get("%s#%s:exists".formatted(type.getSimpleName(), id), lookup::getAsBoolean);
+  }
+
+  public void markExists(Class<?> type, Long id) {
+    memo().ifPresent(memo -> memo.put("%s#%s:exists".formatted(type.getSimpleName(), id), true));
+  }
+
+  public boolean isOwner(Class<?> type, Long id, Long userId, BooleanSupplier lookup) {
+    var key = "%s#%s:owner:%s".formatted(type.getSimpleName(), id, userId);
+    return get(key, lookup::getAsBoolean);
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T get(String key, Supplier<T> lookup) {
+    return memo().map(memo -> (T) memo.computeIfAbsent(key, ignored -> lookup.get()))
+        .orElseGet(lookup);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Optional<Map<String, Object>> memo() {
+    var attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return Optional.empty();
+    }
+    var memo = (Map<String, Object>) attributes.getAttribute(
+        ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (memo == null) {
+      memo = new HashMap<>();
+      attributes.setAttribute(ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+    }
+    return Optional.of(memo);
+  }
+}
@@ -0,0 +1,36 @@
+package com.example.tangerine.api.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.example.tangerine.api.exception.InvalidCursorException;
+import java.util.Base64;
+import lombok.Value;
+
+@Value
+public class SearchCursor implements PageCursor {
+  float score;
+  Long id;
+
+  public static SearchCursor decode(String token) {
+    if (token == null || token.isBlank()) {
+      return null;
+    }
+    try {
+      var parts = new String(Base64.getUrlDecoder().decode(token), UTF_8).split(":");
+      if (parts.length != 2) {
+        throw new InvalidCursorException("Invalid cursor %s".formatted(token));
+      }
+      var score = Float.intBitsToFloat(Integer.parseInt(parts[0]));
+      return new SearchCursor(score, Long.parseLong(parts[1]));
+    } catch (IllegalArgumentException e) {
+      throw new InvalidCursorException("Invalid cursor %s".formatted(token));
+    }
+  }
+
+  // The score travels as raw float bits so the next page compares against the exact value.
+  @Override
+  public String encode() {
+    var raw = "%d:%d".formatted(Float.floatToIntBits(score), id);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(UTF_8));
+  }
+}
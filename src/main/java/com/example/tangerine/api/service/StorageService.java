@@ -1,11 +1,51 @@
 package com.example.tangerine.api.service;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpRange;
 
 public interface StorageService {
-  void uploadImage(byte[] file, String objectKey, String bucket);
+  void uploadImage(InputStream content, long contentLength, String objectKey, String bucket);
+
+  default void uploadImage(byte[] file, String objectKey, String bucket) {
+    uploadImage(new ByteArrayInputStream(file), file.length, objectKey, bucket);
+  }
 
   Resource findByKey(String objectKey, String bucket);
 
+  ObjectRange findRange(String objectKey, String bucket, HttpRange range);
+
   void deleteByKey(String objectKey, String bucket);
+
+  OptionalLong findContentLength(String objectKey, String bucket);
+
+  default CompletableFuture<Void> uploadImageAsync(InputStream content, long contentLength,
+                                                   String objectKey, String bucket) {
+    try {
+      uploadImage(content, contentLength, objectKey, bucket);
+      return CompletableFuture.completedFuture(null);
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  default CompletableFuture<Resource> findByKeyAsync(String objectKey, String bucket) {
+    try {
+      return CompletableFuture.completedFuture(findByKey(objectKey, bucket));
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  default CompletableFuture<ObjectRange> findRangeAsync(String objectKey, String bucket,
+                                                        HttpRange range) {
+    try {
+      return CompletableFuture.completedFuture(findRange(objectKey, bucket, range));
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
 }
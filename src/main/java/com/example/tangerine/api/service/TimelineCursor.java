@@ -0,0 +1,50 @@
+package com.example.tangerine.api.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.example.tangerine.api.exception.InvalidCursorException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import lombok.Value;
+
+@Value
+public class TimelineCursor implements PageCursor {
+  private static final String AFTER = "a";
+  private static final String BEFORE = "b";
+
+  Instant createdAt;
+  Long id;
+  boolean before;
+
+  public static TimelineCursor after(Instant createdAt, Long id) {
+    return new TimelineCursor(createdAt, id, false);
+  }
+
+  public static TimelineCursor before(Instant createdAt, Long id) {
+    return new TimelineCursor(createdAt, id, true);
+  }
+
+  public static TimelineCursor decode(String token) {
+    if (token == null || token.isBlank()) {
+      return null;
+    }
+    try {
+      var parts = new String(Base64.getUrlDecoder().decode(token), UTF_8).split(":");
+      if (parts.length != 4 || !(AFTER.equals(parts[0]) || BEFORE.equals(parts[0]))) {
+        throw new InvalidCursorException("Invalid cursor %s".formatted(token));
+      }
+      var createdAt = Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+      return new TimelineCursor(createdAt, Long.parseLong(parts[3]), BEFORE.equals(parts[0]));
+    } catch (IllegalArgumentException | DateTimeException e) {
+      throw new InvalidCursorException("Invalid cursor %s".formatted(token));
+    }
+  }
+
+  @Override
+  public String encode() {
+    var raw = "%s:%d:%d:%d".formatted(before ? BEFORE : AFTER,
+        createdAt.getEpochSecond(), createdAt.getNano(), id);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(UTF_8));
+  }
+}
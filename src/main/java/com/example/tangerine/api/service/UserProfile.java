@@ -0,0 +1,16 @@
+package com.example.tangerine.api.service;
+
+import com.example.tangerine.api.repository.projection.MenuView;
+import com.example.tangerine.api.repository.projection.RecipeView;
+import com.example.tangerine.api.repository.projection.UserView;
+import java.util.List;
+import lombok.Value;
+
+@Value
+public class UserProfile {
+  UserView user;
+  List<RecipeView> recipes;
+  boolean moreRecipes;
+  List<MenuView> menus;
+  boolean moreMenus;
+}
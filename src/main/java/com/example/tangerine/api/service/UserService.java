@@ -4,9 +4,11 @@ import com.auth0.jwt.interfaces.DecodedJWT;
 import com.example.tangerine.api.domain.Menu;
 import com.example.tangerine.api.domain.Recipe;
 import com.example.tangerine.api.domain.User;
+import com.example.tangerine.api.repository.projection.EntityVersion;
 import java.util.List;
 import java.util.Optional;
-import org.springframework.core.io.Resource;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.http.HttpRange;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface UserService {
@@ -16,21 +18,34 @@ public interface UserService {
 
   User update(User user, String newPassword);
 
-  List<User> findAll();
+  CursorPage<User> findAll(Cursor cursor, int limit);
 
   Optional<User> findById(Long userId);
 
+  Optional<EntityVersion> findVersionById(Long userId);
+
   Optional<User> findByUsername(String username);
 
   Optional<List<Recipe>> getRecipes(Long userId);
 
   Optional<List<Menu>> getMenus(Long userId);
 
+  Optional<UserProfile> getProfile(Long userId, int recipeLimit, int menuLimit);
+
   void deleteById(Long userId);
 
-  String addImage(Long userId, MultipartFile file);
+  CompletableFuture<String> addImage(Long userId, MultipartFile file);
+
+  String getImageTag(Long userId, ImageVariant variant);
+
+  CompletableFuture<ImageContent> getImage(Long userId, ImageVariant variant,
+                                           HttpRange range);
+
+  PresignedUrl getImageUrl(Long userId, ImageVariant variant);
+
+  PresignedUpload createImageUpload(Long userId);
 
-  Resource getImage(Long userId);
+  String confirmImage(Long userId, String imageKey);
 
   void deleteImage(Long userId);
 }
@@ -1,29 +1,69 @@
 package com.example.tangerine.api.service.impl;
 
+import com.example.tangerine.api.exception.ImageNotFoundException;
+import com.example.tangerine.api.exception.ImageRangeNotSatisfiableException;
+import com.example.tangerine.api.service.ObjectRange;
+import com.example.tangerine.api.service.PresignedStorageService;
+import com.example.tangerine.api.service.PresignedUrl;
 import com.example.tangerine.api.service.StorageService;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 @Service
+@ConditionalOnProperty(name = "storage.type", havingValue = "s3", matchIfMissing = true)
 @RequiredArgsConstructor
-public class AwsS3StorageService implements StorageService {
+public class AwsS3StorageService implements StorageService, PresignedStorageService {
+  private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
 
   private final S3Client client;
+  private final S3AsyncClient asyncClient;
+  private final S3Presigner presigner;
+  private final StorageWorkers workers;
+  @Value("${storage.presigned.get-ttl}")
+  private Duration getUrlTtl;
+  @Value("${storage.presigned.put-ttl}")
+  private Duration putUrlTtl;
 
   @Override
-  public void uploadImage(byte[] file, String objectKey, String bucket) {
+  public void uploadImage(InputStream content, long contentLength, String objectKey,
+                          String bucket) {
     var request = PutObjectRequest.builder()
         .bucket(bucket)
         .key(objectKey)
+        .contentLength(contentLength)
         .build();
-    client.putObject(request, RequestBody.fromBytes(file));
+    client.putObject(request, RequestBody.fromInputStream(content, contentLength));
   }
 
   @Override
@@ -32,7 +72,60 @@ public class AwsS3StorageService implements StorageService {
         .bucket(bucket)
         .key(objectKey)
         .build();
-    return new InputStreamResource(client.getObject(request));
+    try {
+      return new InputStreamResource(client.getObject(request));
+    } catch (S3Exception e) {
+      throw translate(e, objectKey);
+    }
+  }
+
+  @Override
+  public ObjectRange findRange(String objectKey, String bucket, HttpRange range) {
+    try {
+      return toRange(client.getObject(rangeRequest(objectKey, bucket, range)));
+    } catch (S3Exception e) {
+      throw translate(e, objectKey);
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> uploadImageAsync(InputStream content, long contentLength,
+                                                  String objectKey, String bucket) {
+    var request = PutObjectRequest.builder()
+        .bucket(bucket)
+        .key(objectKey)
+        .contentLength(contentLength)
+        .build();
+    var body = AsyncRequestBody.fromInputStream(content, contentLength, workers.getExecutor());
+    return asyncClient.putObject(request, body).thenAccept(response -> { });
+  }
+
+  @Override
+  public CompletableFuture<Resource> findByKeyAsync(String objectKey, String bucket) {
+    var request = GetObjectRequest.builder()
+        .bucket(bucket)
+        .key(objectKey)
+        .build();
+    return asyncClient.getObject(request, AsyncResponseTransformer.toBlockingInputStream())
+        .handle((content, error) -> {
+          if (error != null) {
+            throw translate(error, objectKey);
+          }
+          return new InputStreamResource(content);
+        });
+  }
+
+  @Override
+  public CompletableFuture<ObjectRange> findRangeAsync(String objectKey, String bucket,
+                                                       HttpRange range) {
+    var request = rangeRequest(objectKey, bucket, range);
+    return asyncClient.getObject(request, AsyncResponseTransformer.toBlockingInputStream())
+        .handle((content, error) -> {
+          if (error != null) {
+            throw translate(error, objectKey);
+          }
+          return toRange(content);
+        });
   }
 
   @Override
@@ -43,4 +136,81 @@ public class AwsS3StorageService implements StorageService {
         .build();
     client.deleteObject(request);
   }
+
+  @Override
+  public OptionalLong findContentLength(String objectKey, String bucket) {
+    var request = HeadObjectRequest.builder()
+        .bucket(bucket)
+        .key(objectKey)
+        .build();
+    try {
+      return OptionalLong.of(client.headObject(request).contentLength());
+    } catch (NoSuchKeyException e) {
+      return OptionalLong.empty();
+    }
+  }
+
+  @Override
+  public PresignedUrl presignGet(String objectKey, String bucket) {
+    var request = GetObjectPresignRequest.builder()
+        .signatureDuration(getUrlTtl)
+        .getObjectRequest(object -> object
+            .bucket(bucket)
+            .key(objectKey)
+            .responseContentType(MediaType.IMAGE_JPEG_VALUE))
+        .build();
+    var presigned = presigner.presignGetObject(request);
+    return new PresignedUrl(URI.create(presigned.url().toString()), presigned.expiration());
+  }
+
+  @Override
+  public PresignedUrl presignPut(String objectKey, String bucket) {
+    var request = PutObjectPresignRequest.builder()
+        .signatureDuration(putUrlTtl)
+        .putObjectRequest(object -> object
+            .bucket(bucket)
+            .key(objectKey))
+        .build();
+    var presigned = presigner.presignPutObject(request);
+    return new PresignedUrl(URI.create(presigned.url().toString()), presigned.expiration());
+  }
+
+  private static GetObjectRequest rangeRequest(String objectKey, String bucket, HttpRange range) {
+    return GetObjectRequest.builder()
+        .bucket(bucket)
+        .key(objectKey)
+        .range(HttpRange.toString(List.of(range)))
+        .build();
+  }
+
+  private static ObjectRange toRange(ResponseInputStream<GetObjectResponse> content) {
+    var response = content.response();
+    var resource = new InputStreamResource(content);
+    if (response.contentRange() == null) {
+      return new ObjectRange(
+          resource, 0, response.contentLength() - 1, response.contentLength());
+    }
+    var matcher = CONTENT_RANGE.matcher(response.contentRange());
+    if (!matcher.matches()) {
+      content.abort();
+      throw new IllegalStateException(
+          "Unexpected Content-Range %s".formatted(response.contentRange()));
+    }
+    return new ObjectRange(resource, Long.parseLong(matcher.group(1)),
+        Long.parseLong(matcher.group(2)), Long.parseLong(matcher.group(3)));
+  }
+
+  private static RuntimeException translate(Throwable error, String objectKey) {
+    var cause = error instanceof CompletionException && error.getCause() != null
+        ? error.getCause() : error;
+    if (cause instanceof NoSuchKeyException) {
+      return new ImageNotFoundException("Image %s not found".formatted(objectKey));
+    }
+    if (cause instanceof S3Exception s3Exception
+        && s3Exception.statusCode() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+      return new ImageRangeNotSatisfiableException("Requested range is not satisfiable");
+    }
+    return cause instanceof RuntimeException runtimeException
+        ? runtimeException : new CompletionException(cause);
+  }
 }
@@ -0,0 +1,304 @@
+package com.example.tangerine.api.service.impl;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import com.example.tangerine.api.service.ObjectRange;
+import com.example.tangerine.api.service.StorageService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpRange;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+@ManagedResource(objectName = "com.example.tangerine.api:type=ImageCache")
+public class CachingStorageService implements StorageService {
+  private static final String SUFFIX = ".bin";
+  private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+  // evicted files stay on disk a little longer so responses that were already handed a
+  // resource can still open it
+  private static final Duration DELETE_DELAY = Duration.ofMinutes(1);
+
+  private final StorageService delegate;
+  private final Path directory;
+  private final Executor executor;
+  private final Cache<String, CachedFile> index;
+  private final ConcurrentMap<String, CompletableFuture<CachedFile>> inFlight =
+      new ConcurrentHashMap<>();
+  private final LongAdder bytesFromCache = new LongAdder();
+  private final LongAdder bytesFromOrigin = new LongAdder();
+
+  public CachingStorageService(StorageService delegate, Path directory, long maxBytes,
+                               Executor executor) {
+    this.delegate = delegate;
+    this.directory = directory;
+    this.executor = executor;
+    this.index = Caffeine.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher((String key, CachedFile file) ->
+            (int) Math.min(file.getSize(), Integer.MAX_VALUE))
+        .removalListener((key, file, cause) -> {
+          if (file != null) {
+            deleteLater(file.getPath());
+          }
+        })
+        .recordStats()
+        .build();
+    prepareDirectory();
+  }
+
+  @Override
+  public void uploadImage(InputStream content, long contentLength, String objectKey,
+                          String bucket) {
+    delegate.uploadImage(content, contentLength, objectKey, bucket);
+  }
+
+  @Override
+  public Resource findByKey(String objectKey, String bucket) {
+    return read(objectKey, bucket, null).getContent();
+  }
+
+  @Override
+  public ObjectRange findRange(String objectKey, String bucket, HttpRange range) {
+    return read(objectKey, bucket, range);
+  }
+
+  @Override
+  public CompletableFuture<Void> uploadImageAsync(InputStream content, long contentLength,
+                                                  String objectKey, String bucket) {
+    return delegate.uploadImageAsync(content, contentLength, objectKey, bucket);
+  }
+
+  @Override
+  public CompletableFuture<Resource> findByKeyAsync(String objectKey, String bucket) {
+    return readAsync(objectKey, bucket, null).thenApply(ObjectRange::getContent);
+  }
+
+  @Override
+  public CompletableFuture<ObjectRange> findRangeAsync(String objectKey, String bucket,
+                                                       HttpRange range) {
+    return readAsync(objectKey, bucket, range);
+  }
+
+  @Override
+  public void deleteByKey(String objectKey, String bucket) {
+    delegate.deleteByKey(objectKey, bucket);
+    index.invalidate(bucket + "/" + objectKey);
+  }
+
+  @Override
+  public OptionalLong findContentLength(String objectKey, String bucket) {
+    return delegate.findContentLength(objectKey, bucket);
+  }
+
+  @ManagedAttribute
+  public double getHitRatio() {
+    return index.stats().hitRate();
+  }
+
+  @ManagedAttribute
+  public long getHitCount() {
+    return index.stats().hitCount();
+  }
+
+  @ManagedAttribute
+  public long getMissCount() {
+    return index.stats().missCount();
+  }
+
+  @ManagedAttribute
+  public long getEvictionCount() {
+    return index.stats().evictionCount();
+  }
+
+  @ManagedAttribute
+  public long getBytesServedFromCache() {
+    return bytesFromCache.sum();
+  }
+
+  @ManagedAttribute
+  public long getBytesFetchedFromOrigin() {
+    return bytesFromOrigin.sum();
+  }
+
+  @ManagedAttribute
+  public long getCachedBytes() {
+    return index.policy().eviction()
+        .map(eviction -> eviction.weightedSize().orElse(0L))
+        .orElse(0L);
+  }
+
+  @ManagedAttribute
+  public long getCachedEntries() {
+    return index.estimatedSize();
+  }
+
+  private ObjectRange read(String objectKey, String bucket, HttpRange range) {
+    var key = bucket + "/" + objectKey;
+    var cached = readCached(key, range);
+    if (cached != null) {
+      return cached;
+    }
+    var file = await(fetch(key, () -> CompletableFuture.supplyAsync(
+        () -> download(delegate.findByKey(objectKey, bucket)), Runnable::run)));
+    return serve(key, file, range);
+  }
+
+  private CompletableFuture<ObjectRange> readAsync(String objectKey, String bucket,
+                                                   HttpRange range) {
+    var key = bucket + "/" + objectKey;
+    var cached = readCached(key, range);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached);
+    }
+    return fetch(key, () -> delegate.findByKeyAsync(objectKey, bucket)
+            .thenApplyAsync(this::download, executor))
+        .thenApply(file -> serve(key, file, range));
+  }
+
+  // Concurrent misses on one key share a single origin download.
+  private CompletableFuture<CachedFile> fetch(String key,
+                                              Supplier<CompletableFuture<CachedFile>> origin) {
+    var owned = new CompletableFuture<CachedFile>();
+    var pending = inFlight.putIfAbsent(key, owned);
+    if (pending != null) {
+      return pending;
+    }
+    CompletableFuture<CachedFile> download;
+    try {
+      download = origin.get();
+    } catch (RuntimeException e) {
+      download = CompletableFuture.failedFuture(e);
+    }
+    download.whenComplete((file, error) -> {
+      if (error == null) {
+        bytesFromOrigin.add(file.getSize());
+        index.put(key, file);
+      }
+      inFlight.remove(key, owned);
+      if (error == null) {
+        owned.complete(file);
+      } else {
+        owned.completeExceptionally(error);
+      }
+    });
+    return owned;
+  }
+
+  private ObjectRange readCached(String key, HttpRange range) {
+    var cached = index.getIfPresent(key);
+    if (cached == null) {
+      return null;
+    }
+    try {
+      var served = FileChannelResource.of(cached.getPath(), range, describe(key));
+      bytesFromCache.add(served.getLength());
+      return served;
+    } catch (NoSuchFileException e) {
+      index.asMap().remove(key, cached);
+      return null;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private ObjectRange serve(String key, CachedFile file, HttpRange range) {
+    try {
+      return FileChannelResource.of(file.getPath(), range, describe(key));
+    } catch (IOException e) {
+      index.asMap().remove(key, file);
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static <T> T await(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private static String describe(String key) {
+    return "Cached object [%s]".formatted(key);
+  }
+
+  private CachedFile download(Resource origin) {
+    var path = directory.resolve(UUID.randomUUID() + SUFFIX);
+    try (var in = origin.getInputStream();
+         var source = Channels.newChannel(in);
+         var target = FileChannel.open(path, CREATE_NEW, WRITE)) {
+      var size = transfer(source, target);
+      return new CachedFile(path, size);
+    } catch (IOException e) {
+      deleteQuietly(path);
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static long transfer(ReadableByteChannel source, FileChannel target)
+      throws IOException {
+    var position = 0L;
+    long transferred;
+    while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+      position += transferred;
+    }
+    return position;
+  }
+
+  private void prepareDirectory() {
+    try {
+      Files.createDirectories(directory);
+      try (var files = Files.list(directory)) {
+        files.filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+            .forEach(CachingStorageService::deleteQuietly);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void deleteLater(Path path) {
+    CompletableFuture.delayedExecutor(DELETE_DELAY.toMillis(), TimeUnit.MILLISECONDS, executor)
+        .execute(() -> deleteQuietly(path));
+  }
+
+  private static void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException ignored) {
+      // the next startup wipes leftovers
+    }
+  }
+
+  @Value
+  private static class CachedFile {
+    Path path;
+    long size;
+  }
+}
@@ -6,10 +6,17 @@ import com.example.tangerine.api.exception.UserNotFoundException;
 import com.example.tangerine.api.repository.CommentRepository;
 import com.example.tangerine.api.repository.RecipeRepository;
 import com.example.tangerine.api.repository.UserRepository;
+import com.example.tangerine.api.repository.projection.CommentView;
 import com.example.tangerine.api.service.CommentService;
-import java.util.List;
+import com.example.tangerine.api.service.Cursor;
+import com.example.tangerine.api.service.CursorPage;
+import com.example.tangerine.api.service.TimelineCursor;
 import java.util.Optional;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
+import one.util.streamex.StreamEx;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,6 +30,9 @@ public class CommentServiceImpl implements CommentService {
 
   private final RecipeRepository recipeRepository;
 
+  @Value("${pagination.max-page-size}")
+  private int maxPageSize;
+
   @Override
   @Transactional
   public Comment create(Comment comment, Long recipeId, String username) {
@@ -33,7 +43,9 @@ public class CommentServiceImpl implements CommentService {
         .orElseThrow(() -> new RecipeNotFoundException(
             "Recipe with id %s not found".formatted(recipeId)
         )));
-    return commentRepository.save(comment);
+    var created = commentRepository.save(comment);
+    recipeRepository.addToCommentCount(recipeId, 1);
+    return created;
   }
 
   @Override
@@ -42,8 +54,25 @@ public class CommentServiceImpl implements CommentService {
   }
 
   @Override
-  public List<Comment> findAll() {
-    return commentRepository.findAll();
+  public CursorPage<Comment> findAll(Cursor cursor, int limit) {
+    var request = CursorPage.request(limit, maxPageSize);
+    var rows = cursor == null
+        ? commentRepository.findFirstPage(request)
+        : commentRepository.findPageAfter(cursor.getCreatedAt(), cursor.getId(), request);
+    return CursorPage.of(rows, request,
+        comment -> new Cursor(comment.getCreatedAt(), comment.getId()));
+  }
+
+  @Override
+  public CursorPage<CommentView> findByRecipe(Long recipeId, TimelineCursor cursor, int limit) {
+    var request = CursorPage.request(limit, maxPageSize);
+    var page = cursor != null && cursor.isBefore()
+        ? findRecipePageBefore(recipeId, cursor, request)
+        : findRecipePageAfter(recipeId, cursor, request);
+    if (page.getContent().isEmpty() && !recipeRepository.existsById(recipeId)) {
+      throw new RecipeNotFoundException("Recipe with id %s not found".formatted(recipeId));
+    }
+    return page;
   }
 
   @Override
@@ -52,7 +81,48 @@ public class CommentServiceImpl implements CommentService {
   }
 
   @Override
+  @Transactional(readOnly = true)
+  public void exportAll(Consumer<CommentView> consumer) {
+    try (var comments = commentRepository.streamAll()) {
+      comments.forEach(consumer);
+    }
+  }
+
+  @Override
+  @Transactional
   public void deleteById(Long commentId) {
+    commentRepository.findRecipeIdById(commentId)
+        .ifPresent(recipeId -> recipeRepository.addToCommentCount(recipeId, -1));
     commentRepository.deleteById(commentId);
   }
+
+  private CursorPage<CommentView> findRecipePageAfter(Long recipeId, TimelineCursor cursor,
+                                                      Pageable request) {
+    var rows = cursor == null
+        ? commentRepository.findRecipeFirstPage(recipeId, request)
+        : commentRepository.findRecipePageAfter(
+            recipeId, cursor.getCreatedAt(), cursor.getId(), request);
+    var page = CursorPage.of(rows, request,
+        comment -> TimelineCursor.after(comment.getCreatedAt(), comment.getId()));
+    var content = page.getContent();
+    var previous = cursor == null || content.isEmpty()
+        ? null
+        : TimelineCursor.before(content.get(0).getCreatedAt(), content.get(0).getId());
+    return new CursorPage<>(content, page.getNext(), previous);
+  }
+
+  // Walks backwards through the index and flips the rows back into ascending order.
+  private CursorPage<CommentView> findRecipePageBefore(Long recipeId, TimelineCursor cursor,
+                                                       Pageable request) {
+    var rows = commentRepository.findRecipePageBefore(
+        recipeId, cursor.getCreatedAt(), cursor.getId(), request);
+    var page = CursorPage.of(rows, request,
+        comment -> TimelineCursor.before(comment.getCreatedAt(), comment.getId()));
+    var content = StreamEx.ofReversed(page.getContent()).toList();
+    var next = content.isEmpty()
+        ? null
+        : TimelineCursor.after(content.get(content.size() - 1).getCreatedAt(),
+            content.get(content.size() - 1).getId());
+    return new CursorPage<>(content, next, page.getNext());
+  }
 }
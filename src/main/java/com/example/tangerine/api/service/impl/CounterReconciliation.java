@@ -0,0 +1,46 @@
+package com.example.tangerine.api.service.impl;
+
+import com.example.tangerine.api.repository.IngredientCounterRepository;
+import com.example.tangerine.api.repository.MenuRepository;
+import com.example.tangerine.api.repository.RecipeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CounterReconciliation {
+
+  private final RecipeRepository recipeRepository;
+  private final MenuRepository menuRepository;
+  private final IngredientCounterRepository ingredientCounterRepository;
+  @Value("${counters.reconcile.on-startup}")
+  private boolean onStartup;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void reconcileOnStartup() {
+    if (onStartup) {
+      reconcile();
+    }
+  }
+
+  // Each statement rewrites only the rows whose stored count differs from a fresh COUNT.
+  @Scheduled(cron = "${counters.reconcile.cron}")
+  public void reconcile() {
+    var recipes = recipeRepository.reconcileCommentCounts()
+        + recipeRepository.reconcileIngredientCounts()
+        + recipeRepository.reconcileMenuCounts();
+    var menus = menuRepository.reconcileRecipeCounts();
+    var ingredients = ingredientCounterRepository.reconcileRecipeCounts();
+    ingredientCounterRepository.deleteOrphans();
+    if (recipes + menus + ingredients > 0) {
+      log.warn("Corrected drifted counters: {} recipe, {} menu, {} ingredient",
+          recipes, menus, ingredients);
+    }
+  }
+}
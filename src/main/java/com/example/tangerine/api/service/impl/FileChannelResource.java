@@ -0,0 +1,109 @@
+package com.example.tangerine.api.service.impl;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+import com.example.tangerine.api.exception.ImageRangeNotSatisfiableException;
+import com.example.tangerine.api.service.ObjectRange;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.http.HttpRange;
+
+// Opens its channel only when the content is read and closes it with the stream, so a response
+// that is never written does not hold a file descriptor.
+class FileChannelResource extends AbstractResource {
+  private final Path path;
+  private final long start;
+  private final long end;
+  private final String description;
+
+  private FileChannelResource(Path path, long start, long end, String description) {
+    this.path = path;
+    this.start = start;
+    this.end = end;
+    this.description = description;
+  }
+
+  static ObjectRange of(Path path, HttpRange range, String description) throws IOException {
+    var size = Files.size(path);
+    var first = 0L;
+    var last = size - 1;
+    if (range != null) {
+      try {
+        first = range.getRangeStart(size);
+        last = range.getRangeEnd(size);
+      } catch (IllegalArgumentException e) {
+        throw new ImageRangeNotSatisfiableException("Requested range is not satisfiable");
+      }
+    }
+    var resource = new FileChannelResource(path, first, last + 1, description);
+    return new ObjectRange(resource, first, last, size);
+  }
+
+  @Override
+  public String getDescription() {
+    return description;
+  }
+
+  @Override
+  public InputStream getInputStream() throws IOException {
+    var channel = FileChannel.open(path, READ);
+    try {
+      channel.position(start);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    return new FilterInputStream(Channels.newInputStream(channel)) {
+      @Override
+      public int read() throws IOException {
+        return remaining() > 0 ? super.read() : -1;
+      }
+
+      @Override
+      public int read(byte[] buffer, int offset, int length) throws IOException {
+        var remaining = remaining();
+        if (remaining <= 0) {
+          return -1;
+        }
+        return super.read(buffer, offset, (int) Math.min(length, remaining));
+      }
+
+      @Override
+      public long transferTo(OutputStream out) throws IOException {
+        var target = Channels.newChannel(out);
+        var first = channel.position();
+        var position = first;
+        while (position < end) {
+          var transferred = channel.transferTo(position, end - position, target);
+          if (transferred <= 0) {
+            break;
+          }
+          position += transferred;
+        }
+        channel.position(position);
+        return position - first;
+      }
+
+      private long remaining() throws IOException {
+        return end - channel.position();
+      }
+    };
+  }
+
+  @Override
+  public long contentLength() {
+    return end - start;
+  }
+
+  @Override
+  public boolean exists() {
+    return Files.exists(path);
+  }
+}
@@ -0,0 +1,151 @@
+package com.example.tangerine.api.service.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import com.example.tangerine.api.exception.ImageNotFoundException;
+import com.example.tangerine.api.exception.ImageUploadException;
+import com.example.tangerine.api.service.ObjectRange;
+import com.example.tangerine.api.service.StorageService;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.OptionalLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Service;
+
+@Service
+@ConditionalOnProperty(name = "storage.type", havingValue = "filesystem")
+public class FileSystemStorageService implements StorageService {
+  private static final String TEMP_PREFIX = ".upload-";
+  private static final long TRANSFER_CHUNK = 8L * 1024 * 1024;
+
+  private final Path root;
+  private final boolean fsync;
+
+  public FileSystemStorageService(@Value("${storage.filesystem.directory}") Path root,
+                                  @Value("${storage.filesystem.fsync}") boolean fsync,
+                                  @Value("${storage.presigned.enabled}") boolean presigned) {
+    if (presigned) {
+      throw new IllegalStateException(
+          "Presigned URLs require storage.type=s3, disable storage.presigned.enabled");
+    }
+    this.root = root;
+    this.fsync = fsync;
+    try {
+      Files.createDirectories(root);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void uploadImage(InputStream content, long contentLength, String objectKey,
+                          String bucket) {
+    var target = resolve(objectKey, bucket);
+    Path temp = null;
+    try {
+      Files.createDirectories(target.getParent());
+      temp = Files.createTempFile(target.getParent(), TEMP_PREFIX, ".tmp");
+      try (var source = Channels.newChannel(content);
+           var channel = FileChannel.open(temp, WRITE)) {
+        var position = 0L;
+        long transferred;
+        while ((transferred = channel.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+          position += transferred;
+        }
+        if (position != contentLength) {
+          throw new IOException("Expected %d bytes of %s but received %d"
+              .formatted(contentLength, objectKey, position));
+        }
+        if (fsync) {
+          channel.force(true);
+        }
+      }
+      Files.move(temp, target, ATOMIC_MOVE, REPLACE_EXISTING);
+    } catch (IOException e) {
+      deleteQuietly(temp);
+      throw new ImageUploadException("Failed to store image %s".formatted(objectKey));
+    }
+  }
+
+  @Override
+  public Resource findByKey(String objectKey, String bucket) {
+    return findRange(objectKey, bucket, null).getContent();
+  }
+
+  @Override
+  public ObjectRange findRange(String objectKey, String bucket, HttpRange range) {
+    try {
+      return FileChannelResource.of(
+          resolve(objectKey, bucket), range, "Object [%s]".formatted(objectKey));
+    } catch (NoSuchFileException e) {
+      throw new ImageNotFoundException("Image %s not found".formatted(objectKey));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void deleteByKey(String objectKey, String bucket) {
+    try {
+      Files.deleteIfExists(resolve(objectKey, bucket));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public OptionalLong findContentLength(String objectKey, String bucket) {
+    try {
+      return OptionalLong.of(Files.size(resolve(objectKey, bucket)));
+    } catch (NoSuchFileException e) {
+      return OptionalLong.empty();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // Object keys are hashed so that "a/b" and "a/b/small" never collide as file and directory,
+  // and two levels of shards keep every directory small.
+  private Path resolve(String objectKey, String bucket) {
+    var hash = sha256(objectKey);
+    return root.resolve(bucket)
+        .resolve(hash.substring(0, 2))
+        .resolve(hash.substring(2, 4))
+        .resolve(hash);
+  }
+
+  private static String sha256(String value) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(UTF_8));
+      return HexFormat.of().formatHex(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static void deleteQuietly(Path path) {
+    if (path == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException ignored) {
+      // an orphaned temp file never shadows a stored object
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.tangerine.api.service.impl;
+
+import com.example.tangerine.api.exception.ImageUploadException;
+import com.example.tangerine.api.exception.UploadCapacityExceededException;
+import com.example.tangerine.api.service.StorageService;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+@Component
+public class ImageUploads {
+  private static final long PERMIT_BYTES = 1024;
+
+  private final StorageService storageService;
+  private final ImageVariants imageVariants;
+  private final Semaphore inFlight;
+  private final int maxPermits;
+  @Value("${aws.bucket}")
+  private String bucket;
+
+  public ImageUploads(StorageService storageService,
+                      ImageVariants imageVariants,
+                      @Value("${storage.upload.max-in-flight}") DataSize maxInFlight) {
+    this.storageService = storageService;
+    this.imageVariants = imageVariants;
+    this.maxPermits = (int) Math.min(Integer.MAX_VALUE,
+        Math.max(1, maxInFlight.toBytes() / PERMIT_BYTES));
+    this.inFlight = new Semaphore(maxPermits);
+  }
+
+  public CompletableFuture<String> upload(String prefix, MultipartFile file) {
+    var imageKey = UUID.randomUUID().toString();
+    var objectKey = "%s/%s".formatted(prefix, imageKey);
+    var permits = permitsFor(file.getSize());
+    acquire(permits);
+    InputStream content;
+    try {
+      content = file.getInputStream();
+    } catch (IOException e) {
+      inFlight.release(permits);
+      var fileName = file.getOriginalFilename();
+      throw new ImageUploadException("Failed to upload image %s".formatted(fileName));
+    }
+    return storageService.uploadImageAsync(content, file.getSize(), objectKey, bucket)
+        .whenComplete((ignored, error) -> {
+          closeQuietly(content);
+          inFlight.release(permits);
+        })
+        .thenApply(ignored -> {
+          // only enqueues, so nothing can fail between the stored object and its key
+          imageVariants.generate(objectKey);
+          return imageKey;
+        });
+  }
+
+  private int permitsFor(long size) {
+    var permits = (size + PERMIT_BYTES - 1) / PERMIT_BYTES;
+    return (int) Math.min(maxPermits, Math.max(1, permits));
+  }
+
+  // Fails fast instead of parking the request thread until capacity frees up.
+  private void acquire(int permits) {
+    if (inFlight.tryAcquire(permits)) {
+      return;
+    }
+    throw new UploadCapacityExceededException(
+        "Too many image uploads in progress, retry later");
+  }
+
+  private static void closeQuietly(InputStream content) {
+    try {
+      content.close();
+    } catch (IOException ignored) {
+      // the multipart file is cleaned up with the request
+    }
+  }
+}
@@ -0,0 +1,194 @@
+package com.example.tangerine.api.service.impl;
+
+import com.example.tangerine.api.exception.ImageNotFoundException;
+import com.example.tangerine.api.service.ImageContent;
+import com.example.tangerine.api.service.ImageVariant;
+import com.example.tangerine.api.service.StorageService;
+import jakarta.annotation.PreDestroy;
+import java.awt.Color;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpRange;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class ImageVariants {
+  private final StorageService storageService;
+  private final ExecutorService executor;
+  private final float quality;
+  @Value("${aws.bucket}")
+  private String bucket;
+
+  public ImageVariants(StorageService storageService,
+                       @Value("${images.variants.threads}") int threads,
+                       @Value("${images.variants.queue-capacity}") int queueCapacity,
+                       @Value("${images.variants.quality}") float quality) {
+    this.storageService = storageService;
+    this.quality = quality;
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("image-variants-"));
+  }
+
+  // Variants are read back from storage on the variants pool, so the request never waits on
+  // spooling the upload to disk.
+  public void generate(String objectKey) {
+    submit(objectKey, () -> {
+      try (var input = storageService.findByKey(objectKey, bucket).getInputStream()) {
+        process(objectKey, input);
+      }
+    });
+  }
+
+  public String tag(String objectKey, ImageVariant variant) {
+    var imageKey = objectKey.substring(objectKey.lastIndexOf('/') + 1);
+    return variant == null ? imageKey : "%s-%s".formatted(imageKey, variant.getKey());
+  }
+
+  public CompletableFuture<ImageContent> find(String objectKey, ImageVariant variant,
+                                               HttpRange range) {
+    if (variant == null) {
+      return read(objectKey, null, range, true);
+    }
+    return read(objectKey, variant, range, true).exceptionallyCompose(error -> {
+      var cause = error instanceof CompletionException && error.getCause() != null
+          ? error.getCause() : error;
+      if (cause instanceof ImageNotFoundException) {
+        // not generated yet, serve the original but keep clients revalidating
+        return read(objectKey, null, range, false);
+      }
+      return CompletableFuture.failedFuture(cause);
+    });
+  }
+
+  public void delete(String objectKey) {
+    for (var variant : ImageVariant.values()) {
+      storageService.deleteByKey(variant.objectKey(objectKey), bucket);
+    }
+  }
+
+  private CompletableFuture<ImageContent> read(String objectKey, ImageVariant variant,
+                                               HttpRange range, boolean immutable) {
+    var key = variant == null ? objectKey : variant.objectKey(objectKey);
+    var tag = tag(objectKey, variant);
+    if (range == null) {
+      return storageService.findByKeyAsync(key, bucket)
+          .thenApply(body -> new ImageContent(body, tag, immutable, null));
+    }
+    return storageService.findRangeAsync(key, bucket, range)
+        .thenApply(part -> new ImageContent(part.getContent(), tag, immutable, part));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  private void submit(String objectKey, Task task) {
+    try {
+      executor.execute(() -> {
+        try {
+          task.run();
+        } catch (IOException | RuntimeException e) {
+          log.warn("Failed to generate variants of {}", objectKey, e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      log.warn("Variant generation queue is full, skipping {}", objectKey);
+    }
+  }
+
+  private void process(String objectKey, InputStream input) throws IOException {
+    var image = decode(input);
+    if (image == null) {
+      log.warn("Unsupported image format of {}, no variants generated", objectKey);
+      return;
+    }
+    for (var variant : ImageVariant.values()) {
+      var bytes = encode(resize(image, variant.getMaxDimension()));
+      storageService.uploadImage(bytes, variant.objectKey(objectKey), bucket);
+    }
+  }
+
+  private static BufferedImage decode(InputStream input) throws IOException {
+    try (var stream = ImageIO.createImageInputStream(input)) {
+      var readers = stream == null ? null : ImageIO.getImageReaders(stream);
+      if (readers == null || !readers.hasNext()) {
+        return null;
+      }
+      var reader = readers.next();
+      try {
+        reader.setInput(stream, true, true);
+        var longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+        var step = Math.max(1, longest / largestDimension());
+        var param = reader.getDefaultReadParam();
+        param.setSourceSubsampling(step, step, 0, 0);
+        return reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  private static BufferedImage resize(BufferedImage source, int maxDimension) {
+    var scale = Math.min(1.0,
+        (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+    var width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+    var height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+    var target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    var graphics = target.createGraphics();
+    try {
+      graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+          RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING,
+          RenderingHints.VALUE_RENDER_QUALITY);
+      graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+    } finally {
+      graphics.dispose();
+    }
+    return target;
+  }
+
+  private byte[] encode(BufferedImage image) throws IOException {
+    var writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+    var output = new ByteArrayOutputStream();
+    try (var stream = ImageIO.createImageOutputStream(output)) {
+      writer.setOutput(stream);
+      var param = writer.getDefaultWriteParam();
+      param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+      param.setCompressionQuality(quality);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+    return output.toByteArray();
+  }
+
+  private static int largestDimension() {
+    var largest = 1;
+    for (var variant : ImageVariant.values()) {
+      largest = Math.max(largest, variant.getMaxDimension());
+    }
+    return largest;
+  }
+
+  private interface Task {
+    void run() throws IOException;
+  }
+}
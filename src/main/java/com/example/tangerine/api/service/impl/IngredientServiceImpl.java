@@ -1,19 +1,28 @@
 package com.example.tangerine.api.service.impl;
 
 import com.example.tangerine.api.domain.Ingredient;
+import com.example.tangerine.api.domain.Recipe;
 import com.example.tangerine.api.exception.ImageNotFoundException;
-import com.example.tangerine.api.exception.ImageUploadException;
 import com.example.tangerine.api.exception.IngredientNotFoundException;
+import com.example.tangerine.api.repository.IngredientCounterRepository;
 import com.example.tangerine.api.repository.IngredientRepository;
+import com.example.tangerine.api.repository.RecipeRepository;
+import com.example.tangerine.api.service.Cursor;
+import com.example.tangerine.api.service.CursorPage;
+import com.example.tangerine.api.service.ImageContent;
+import com.example.tangerine.api.service.ImageVariant;
 import com.example.tangerine.api.service.IngredientService;
+import com.example.tangerine.api.service.PresignedUpload;
+import com.example.tangerine.api.service.PresignedUrl;
+import com.example.tangerine.api.service.RequestLookupCache;
 import com.example.tangerine.api.service.StorageService;
-import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
+import one.util.streamex.StreamEx;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
+import org.springframework.http.HttpRange;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -23,9 +32,18 @@ import org.springframework.web.multipart.MultipartFile;
 public class IngredientServiceImpl implements IngredientService {
 
   private final IngredientRepository ingredientRepository;
+  private final IngredientCounterRepository ingredientCounterRepository;
+  private final RecipeRepository recipeRepository;
   private final StorageService storageService;
+  private final PresignedImages presignedImages;
+  private final ImageUploads imageUploads;
+  private final ImageVariants imageVariants;
+  private final RecipeIngredientIndex ingredientIndex;
+  private final RequestLookupCache lookups;
   @Value("${aws.bucket}")
   private String bucket;
+  @Value("${pagination.max-page-size}")
+  private int maxPageSize;
 
   @Override
   public Ingredient create(Ingredient ingredient) {
@@ -34,62 +52,89 @@ public class IngredientServiceImpl implements IngredientService {
 
   @Override
   public Ingredient update(Ingredient ingredient) {
-    return ingredientRepository.save(ingredient);
+    return withRecipeCounts(List.of(ingredientRepository.save(ingredient))).get(0);
   }
 
   @Override
-  public List<Ingredient> findAll() {
-    return ingredientRepository.findAll();
+  public CursorPage<Ingredient> findAll(Cursor cursor, int limit) {
+    var request = CursorPage.request(limit, maxPageSize);
+    var rows = cursor == null
+        ? ingredientRepository.findFirstPage(request)
+        : ingredientRepository.findPageAfter(cursor.getCreatedAt(), cursor.getId(), request);
+    return CursorPage.of(withRecipeCounts(rows), request,
+        ingredient -> new Cursor(ingredient.getCreatedAt(), ingredient.getId()));
   }
 
   @Override
   public Optional<Ingredient> findById(Long ingredientId) {
-    return ingredientRepository.findById(ingredientId);
+    return ingredientRepository.findById(ingredientId)
+        .map(ingredient -> withRecipeCounts(List.of(ingredient)).get(0));
   }
 
   @Override
   @Transactional
   public void deleteById(Long ingredientId) {
-    ingredientRepository.findById(ingredientId)
-        .ifPresent(ingredient -> ingredient.getRecipes()
-            .forEach(recipe -> recipe.removeIngredient(ingredient)));
+    // Unlink first so the recipes are flushed before the counter update bumps their version.
+    ingredientRepository.findWithRecipesById(ingredientId).ifPresent(ingredient -> {
+      var recipes = List.copyOf(ingredient.getRecipes());
+      recipes.forEach(recipe -> recipe.removeIngredient(ingredient));
+      if (!recipes.isEmpty()) {
+        recipeRepository.addToIngredientCount(StreamEx.of(recipes).map(Recipe::getId).toSet(), -1);
+      }
+    });
     ingredientRepository.deleteById(ingredientId);
+    ingredientCounterRepository.deleteById(ingredientId);
+    ingredientIndex.removeIngredient(ingredientId);
   }
 
   @Override
-  @Transactional
-  public String addImage(Long ingredientId, MultipartFile file) {
+  public CompletableFuture<String> addImage(Long ingredientId, MultipartFile file) {
     if (!ingredientRepository.existsById(ingredientId)) {
       throw new IngredientNotFoundException(
           "Ingredient with id %s not found".formatted(ingredientId));
     }
-    var imageKey = UUID.randomUUID().toString();
-    try {
-      storageService.uploadImage(
-          file.getBytes(),
-          "ingredient-images/%s/%s".formatted(ingredientId, imageKey),
-          bucket);
-    } catch (IOException e) {
-      var fileName = file.getOriginalFilename();
-      throw new ImageUploadException("Failed to upload image %s".formatted(fileName));
+    return imageUploads.upload("ingredient-images/%s".formatted(ingredientId), file)
+        .thenApply(imageKey -> {
+          ingredientRepository.updateImageKeyById(ingredientId, imageKey);
+          return imageKey;
+        });
+  }
+
+  @Override
+  public String getImageTag(Long ingredientId, ImageVariant variant) {
+    return imageVariants.tag(getImageObjectKey(ingredientId), variant);
+  }
+
+  @Override
+  public CompletableFuture<ImageContent> getImage(Long ingredientId, ImageVariant variant,
+                                                  HttpRange range) {
+    return imageVariants.find(getImageObjectKey(ingredientId), variant, range);
+  }
+
+  @Override
+  public PresignedUrl getImageUrl(Long ingredientId, ImageVariant variant) {
+    return presignedImages.presign(getImageObjectKey(ingredientId), variant);
+  }
+
+  @Override
+  public PresignedUpload createImageUpload(Long ingredientId) {
+    if (!ingredientRepository.existsById(ingredientId)) {
+      throw new IngredientNotFoundException(
+          "Ingredient with id %s not found".formatted(ingredientId));
     }
-    ingredientRepository.updateImageKeyById(ingredientId, imageKey);
-    return imageKey;
+    return presignedImages.createUpload("ingredient-images/%s".formatted(ingredientId));
   }
 
   @Override
-  public Resource getImage(Long ingredientId) {
-    var ingredient = ingredientRepository.findById(ingredientId).orElseThrow(
-        () -> new IngredientNotFoundException(
-            "Ingredient with id %s not found".formatted(ingredientId))
-    );
-    if (ingredient.getImageKey() == null || ingredient.getImageKey().isBlank()) {
-      throw new ImageNotFoundException(
-          "Image of ingredient with id %s not found".formatted(ingredientId));
+  @Transactional
+  public String confirmImage(Long ingredientId, String imageKey) {
+    if (!ingredientRepository.existsById(ingredientId)) {
+      throw new IngredientNotFoundException(
+          "Ingredient with id %s not found".formatted(ingredientId));
     }
-    return storageService.findByKey(
-        "ingredient-images/%s/%s".formatted(ingredientId, ingredient.getImageKey()),
-        bucket);
+    presignedImages.confirmUpload("ingredient-images/%s".formatted(ingredientId), imageKey);
+    ingredientRepository.updateImageKeyById(ingredientId, imageKey);
+    return imageKey;
   }
 
   @Override
@@ -100,11 +145,35 @@ public class IngredientServiceImpl implements IngredientService {
             "Ingredient with id %s not found".formatted(ingredientId))
     );
     if (ingredient.getImageKey() != null) {
-      storageService.deleteByKey(
-          "ingredient-images/%s/%s".formatted(ingredientId, ingredient.getImageKey()),
-          bucket
-      );
+      var objectKey = "ingredient-images/%s/%s".formatted(ingredientId, ingredient.getImageKey());
+      storageService.deleteByKey(objectKey, bucket);
+      imageVariants.delete(objectKey);
       ingredient.setImageKey(null);
     }
   }
+
+  private List<Ingredient> withRecipeCounts(List<Ingredient> ingredients) {
+    var counts = ingredientCounterRepository.findRecipeCounts(
+        StreamEx.of(ingredients).map(Ingredient::getId).toSet());
+    ingredients.forEach(ingredient ->
+        ingredient.setRecipeCount(counts.getOrDefault(ingredient.getId(), 0L)));
+    return ingredients;
+  }
+
+  private String getImageObjectKey(Long ingredientId) {
+    return lookups.get("Ingredient#%s:image".formatted(ingredientId),
+        () -> loadImageObjectKey(ingredientId));
+  }
+
+  private String loadImageObjectKey(Long ingredientId) {
+    var imageKey = ingredientRepository.findImageKeyById(ingredientId).orElseThrow(
+        () -> new IngredientNotFoundException(
+            "Ingredient with id %s not found".formatted(ingredientId))
+    );
+    if (imageKey.isBlank()) {
+      throw new ImageNotFoundException(
+          "Image of ingredient with id %s not found".formatted(ingredientId));
+    }
+    return "ingredient-images/%s/%s".formatted(ingredientId, imageKey);
+  }
 }
@@ -3,23 +3,32 @@ package com.example.tangerine.api.service.impl;
 import com.example.tangerine.api.domain.Menu;
 import com.example.tangerine.api.domain.Recipe;
 import com.example.tangerine.api.exception.ImageNotFoundException;
-import com.example.tangerine.api.exception.ImageUploadException;
 import com.example.tangerine.api.exception.MenuNotFoundException;
+import com.example.tangerine.api.exception.RecipeNotFoundException;
 import com.example.tangerine.api.exception.UserNotFoundException;
 import com.example.tangerine.api.repository.MenuRepository;
 import com.example.tangerine.api.repository.RecipeRepository;
 import com.example.tangerine.api.repository.UserRepository;
+import com.example.tangerine.api.repository.projection.EntityVersion;
+import com.example.tangerine.api.repository.projection.MenuView;
+import com.example.tangerine.api.service.Cursor;
+import com.example.tangerine.api.service.CursorPage;
+import com.example.tangerine.api.service.ImageContent;
+import com.example.tangerine.api.service.ImageVariant;
 import com.example.tangerine.api.service.MenuService;
+import com.example.tangerine.api.service.PresignedUpload;
+import com.example.tangerine.api.service.PresignedUrl;
+import com.example.tangerine.api.service.RequestLookupCache;
 import com.example.tangerine.api.service.StorageService;
-import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import lombok.RequiredArgsConstructor;
 import one.util.streamex.StreamEx;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
+import org.springframework.http.HttpRange;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -32,8 +41,14 @@ public class MenuServiceImpl implements MenuService {
   private final UserRepository userRepository;
   private final RecipeRepository recipeRepository;
   private final StorageService storageService;
+  private final PresignedImages presignedImages;
+  private final ImageUploads imageUploads;
+  private final ImageVariants imageVariants;
+  private final RequestLookupCache lookups;
   @Value("${aws.bucket}")
   private String bucket;
+  @Value("${pagination.max-page-size}")
+  private int maxPageSize;
 
   @Override
   @Transactional
@@ -41,24 +56,38 @@ public class MenuServiceImpl implements MenuService {
     menu.setAuthor(userRepository.findByUsername(username)
         .orElseThrow(() -> new UserNotFoundException(
             "User with username %s not found".formatted(username))));
-    StreamEx.of(recipeIndices)
-        .mapPartial(recipeRepository::findById)
-        .forEach(menu::addRecipe);
-    return menuRepository.save(menu);
+    var recipeIds = findRecipeIds(recipeIndices);
+    var created = menuRepository.save(menu);
+    if (!recipeIds.isEmpty()) {
+      var added = menuRepository.addRecipes(created.getId(), recipeIds);
+      menuRepository.addToRecipeCount(Set.of(created.getId()), added);
+      recipeRepository.addToMenuCount(recipeIds, 1);
+      refreshCounters(created);
+    }
+    return created;
   }
 
   @Override
   @Transactional
   public Menu update(Menu menu, List<Long> recipeIndices) {
-    menu.rewriteRecipes(StreamEx.of(recipeIndices)
-        .mapPartial(recipeRepository::findById)
-        .toList());
-    return menuRepository.save(menu);
+    var updated = menuRepository.save(menu);
+    if (recipeIndices != null) {
+      var delta = rewriteRecipes(updated.getId(), findRecipeIds(recipeIndices));
+      if (delta != 0) {
+        refreshCounters(updated);
+      }
+    }
+    return updated;
   }
 
   @Override
-  public List<Menu> findAll() {
-    return menuRepository.findAll();
+  public CursorPage<MenuView> findAll(Cursor cursor, int limit) {
+    var request = CursorPage.request(limit, maxPageSize);
+    var rows = cursor == null
+        ? menuRepository.findFirstPage(request)
+        : menuRepository.findPageAfter(cursor.getCreatedAt(), cursor.getId(), request);
+    return CursorPage.of(rows, request,
+        menu -> new Cursor(menu.getCreatedAt(), menu.getId()));
   }
 
   @Override
@@ -67,47 +96,111 @@ public class MenuServiceImpl implements MenuService {
   }
 
   @Override
+  @Transactional(readOnly = true)
+  public void exportAll(Consumer<MenuView> consumer) {
+    try (var menus = menuRepository.streamAll()) {
+      menus.forEach(consumer);
+    }
+  }
+
+  @Override
+  public Optional<MenuView> findViewById(Long menuId) {
+    return menuRepository.findViewById(menuId);
+  }
+
+  @Override
+  public Optional<EntityVersion> findVersionById(Long menuId) {
+    return menuRepository.findVersionById(menuId);
+  }
+
+  @Override
+  @Transactional
   public void deleteById(Long menuId) {
+    var recipeIds = menuRepository.findRecipeIdsById(menuId);
+    if (!recipeIds.isEmpty()) {
+      recipeRepository.addToMenuCount(recipeIds, -1);
+    }
     menuRepository.deleteById(menuId);
   }
 
   @Override
   @Transactional
   public Optional<Set<Recipe>> getRecipes(Long menuId) {
-    return menuRepository.findById(menuId).map(Menu::getRecipes).map(Set::copyOf);
+    return menuRepository.findWithRecipesById(menuId).map(Menu::getRecipes).map(Set::copyOf);
   }
 
   @Override
   @Transactional
-  public String addImage(Long menuId, MultipartFile file) {
-    if (!menuRepository.existsById(menuId)) {
+  public void addRecipe(Long menuId, Long recipeId) {
+    if (!lookups.exists(Menu.class, menuId, () -> menuRepository.existsById(menuId))) {
       throw new MenuNotFoundException("Menu with id %s not found".formatted(menuId));
     }
-    var imageKey = UUID.randomUUID().toString();
-    try {
-      storageService.uploadImage(
-          file.getBytes(),
-          "menu-images/%s/%s".formatted(menuId, imageKey),
-          bucket);
-    } catch (IOException e) {
-      var fileName = file.getOriginalFilename();
-      throw new ImageUploadException("Failed to upload image %s".formatted(fileName));
+    if (!recipeRepository.existsById(recipeId)) {
+      throw new RecipeNotFoundException("Recipe with id %s not found".formatted(recipeId));
+    }
+    if (menuRepository.addRecipes(menuId, Set.of(recipeId)) > 0) {
+      menuRepository.addToRecipeCount(Set.of(menuId), 1);
+      recipeRepository.addToMenuCount(Set.of(recipeId), 1);
     }
-    menuRepository.updateImageKeyById(menuId, imageKey);
-    return imageKey;
   }
 
   @Override
-  public Resource getImage(Long menuId) {
-    var menu = menuRepository.findById(menuId).orElseThrow(
-        () -> new MenuNotFoundException("Menu with id %s not found".formatted(menuId))
-    );
-    if (menu.getImageKey() == null || menu.getImageKey().isBlank()) {
-      throw new ImageNotFoundException("Image of menu with id %s not found".formatted(menuId));
+  @Transactional
+  public void removeRecipe(Long menuId, Long recipeId) {
+    if (!lookups.exists(Menu.class, menuId, () -> menuRepository.existsById(menuId))) {
+      throw new MenuNotFoundException("Menu with id %s not found".formatted(menuId));
     }
-    return storageService.findByKey(
-        "menu-images/%s/%s".formatted(menuId, menu.getImageKey()),
-        bucket);
+    if (menuRepository.removeRecipes(menuId, Set.of(recipeId)) > 0) {
+      menuRepository.addToRecipeCount(Set.of(menuId), -1);
+      recipeRepository.addToMenuCount(Set.of(recipeId), -1);
+    }
+  }
+
+  @Override
+  public CompletableFuture<String> addImage(Long menuId, MultipartFile file) {
+    if (!lookups.exists(Menu.class, menuId, () -> menuRepository.existsById(menuId))) {
+      throw new MenuNotFoundException("Menu with id %s not found".formatted(menuId));
+    }
+    return imageUploads.upload("menu-images/%s".formatted(menuId), file)
+        .thenApply(imageKey -> {
+          menuRepository.updateImageKeyById(menuId, imageKey);
+          return imageKey;
+        });
+  }
+
+  @Override
+  public String getImageTag(Long menuId, ImageVariant variant) {
+    return imageVariants.tag(getImageObjectKey(menuId), variant);
+  }
+
+  @Override
+  public CompletableFuture<ImageContent> getImage(Long menuId, ImageVariant variant,
+                                                  HttpRange range) {
+    return imageVariants.find(getImageObjectKey(menuId), variant, range);
+  }
+
+  @Override
+  public PresignedUrl getImageUrl(Long menuId, ImageVariant variant) {
+    return presignedImages.presign(getImageObjectKey(menuId), variant);
+  }
+
+  @Override
+  public PresignedUpload createImageUpload(Long menuId) {
+    if (!lookups.exists(Menu.class, menuId, () -> menuRepository.existsById(menuId))) {
+      throw new MenuNotFoundException("Menu with id %s not found".formatted(menuId));
+    }
+    return presignedImages.createUpload("menu-images/%s".formatted(menuId));
+  }
+
+  @Override
+  @Transactional
+  public String confirmImage(Long menuId, String imageKey) {
+    if (!lookups.exists(Menu.class, menuId, () -> menuRepository.existsById(menuId))) {
+      throw new MenuNotFoundException("Menu with id %s not found".formatted(menuId));
+    }
+    presignedImages.confirmUpload("menu-images/%s".formatted(menuId), imageKey);
+    menuRepository.updateImageKeyById(menuId, imageKey);
+    return imageKey;
   }
 
   @Override
@@ -117,11 +210,59 @@ public class MenuServiceImpl implements MenuService {
         () -> new MenuNotFoundException("Menu with id %s not found".formatted(menuId))
     );
     if (menu.getImageKey() != null) {
-      storageService.deleteByKey(
-          "menu-images/%s/%s".formatted(menuId, menu.getImageKey()),
-          bucket
-      );
+      var objectKey = "menu-images/%s/%s".formatted(menuId, menu.getImageKey());
+      storageService.deleteByKey(objectKey, bucket);
+      imageVariants.delete(objectKey);
       menu.setImageKey(null);
     }
   }
+
+  private long rewriteRecipes(Long menuId, Set<Long> recipeIds) {
+    var current = menuRepository.findRecipeIdsById(menuId);
+    var removed = StreamEx.of(current).remove(recipeIds::contains).toSet();
+    var added = StreamEx.of(recipeIds).remove(current::contains).toSet();
+    var delta = 0L;
+    if (!removed.isEmpty()) {
+      delta -= menuRepository.removeRecipes(menuId, removed);
+      recipeRepository.addToMenuCount(removed, -1);
+    }
+    if (!added.isEmpty()) {
+      delta += menuRepository.addRecipes(menuId, added);
+      recipeRepository.addToMenuCount(added, 1);
+    }
+    if (delta != 0) {
+      menuRepository.addToRecipeCount(Set.of(menuId), delta);
+    }
+    return delta;
+  }
+
+  private void refreshCounters(Menu menu) {
+    var view = menuRepository.findViewById(menu.getId()).orElseThrow();
+    menu.setRecipeCount(view.getRecipeCount());
+    menu.setVersion(view.getVersion());
+  }
+
+  private Set<Long> findRecipeIds(List<Long> recipeIndices) {
+    var ids = Set.copyOf(recipeIndices);
+    var found = ids.isEmpty() ? Set.<Long>of() : recipeRepository.findExistingIds(ids);
+    if (found.size() != ids.size()) {
+      var missing = StreamEx.of(ids).remove(found::contains).sorted().toList();
+      throw new RecipeNotFoundException("Recipes with ids %s not found".formatted(missing));
+    }
+    return ids;
+  }
+
+  private String getImageObjectKey(Long menuId) {
+    return lookups.get("Menu#%s:image".formatted(menuId), () -> loadImageObjectKey(menuId));
+  }
+
+  private String loadImageObjectKey(Long menuId) {
+    var imageKey = menuRepository.findImageKeyById(menuId).orElseThrow(
+        () -> new MenuNotFoundException("Menu with id %s not found".formatted(menuId))
+    );
+    if (imageKey.isBlank()) {
+      throw new ImageNotFoundException("Image of menu with id %s not found".formatted(menuId));
+    }
+    return "menu-images/%s/%s".formatted(menuId, imageKey);
+  }
 }
@@ -0,0 +1,77 @@
+package com.example.tangerine.api.service.impl;
+
+import com.example.tangerine.api.exception.ImageNotFoundException;
+import com.example.tangerine.api.exception.ImageUploadException;
+import com.example.tangerine.api.exception.PresignedUploadsDisabledException;
+import com.example.tangerine.api.service.ImageVariant;
+import com.example.tangerine.api.service.PresignedStorageService;
+import com.example.tangerine.api.service.PresignedUpload;
+import com.example.tangerine.api.service.PresignedUrl;
+import com.example.tangerine.api.service.StorageService;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+@RequiredArgsConstructor
+public class PresignedImages {
+
+  private final StorageService storageService;
+  private final ObjectProvider<PresignedStorageService> presignedStorage;
+  private final ImageVariants imageVariants;
+  @Value("${aws.bucket}")
+  private String bucket;
+  @Value("${storage.presigned.enabled}")
+  private boolean enabled;
+  @Value("${storage.presigned.max-upload-size}")
+  private DataSize maxUploadSize;
+
+  public PresignedUpload createUpload(String prefix) {
+    requireEnabled();
+    var imageKey = UUID.randomUUID().toString();
+    var presigned = presignedStorage.getObject()
+        .presignPut("%s/%s".formatted(prefix, imageKey), bucket);
+    return new PresignedUpload(imageKey, presigned.getUrl(), presigned.getExpiresAt());
+  }
+
+  public PresignedUrl presign(String objectKey, ImageVariant variant) {
+    if (variant != null
+        && storageService.findContentLength(variant.objectKey(objectKey), bucket).isPresent()) {
+      return presignedStorage.getObject().presignGet(variant.objectKey(objectKey), bucket);
+    }
+    return presignedStorage.getObject().presignGet(objectKey, bucket);
+  }
+
+  public String confirmUpload(String prefix, String imageKey) {
+    requireEnabled();
+    if (!isImageKey(imageKey)) {
+      throw new ImageUploadException("Invalid image key %s".formatted(imageKey));
+    }
+    var objectKey = "%s/%s".formatted(prefix, imageKey);
+    var contentLength = storageService.findContentLength(objectKey, bucket).orElseThrow(
+        () -> new ImageNotFoundException("Image %s was not uploaded".formatted(imageKey)));
+    if (contentLength > maxUploadSize.toBytes()) {
+      storageService.deleteByKey(objectKey, bucket);
+      throw new ImageUploadException("Image %s exceeds %s".formatted(imageKey, maxUploadSize));
+    }
+    imageVariants.generate(objectKey);
+    return imageKey;
+  }
+
+  private void requireEnabled() {
+    if (!enabled) {
+      throw new PresignedUploadsDisabledException("Presigned image uploads are disabled");
+    }
+  }
+
+  private static boolean isImageKey(String imageKey) {
+    try {
+      return imageKey != null && UUID.fromString(imageKey).toString().equals(imageKey);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+}
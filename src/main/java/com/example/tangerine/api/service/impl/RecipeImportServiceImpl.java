@@ -0,0 +1,206 @@
+package com.example.tangerine.api.service.impl;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.example.tangerine.api.domain.Recipe;
+import com.example.tangerine.api.domain.User;
+import com.example.tangerine.api.exception.RecipeImportException;
+import com.example.tangerine.api.exception.UserNotFoundException;
+import com.example.tangerine.api.repository.IngredientCounterRepository;
+import com.example.tangerine.api.repository.IngredientRepository;
+import com.example.tangerine.api.repository.UserRepository;
+import com.example.tangerine.api.repository.projection.IngredientRef;
+import com.example.tangerine.api.service.ImportReport;
+import com.example.tangerine.api.service.RecipeImportLine;
+import com.example.tangerine.api.service.RecipeImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import one.util.streamex.EntryStream;
+import one.util.streamex.StreamEx;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+@RequiredArgsConstructor
+public class RecipeImportServiceImpl implements RecipeImportService {
+
+  private final IngredientRepository ingredientRepository;
+  private final IngredientCounterRepository ingredientCounterRepository;
+  private final UserRepository userRepository;
+  private final EntityManager entityManager;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final RecipeIngredientIndex ingredientIndex;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  @Value("${recipes.import.chunk-size}")
+  private int chunkSize;
+  @Value("${recipes.import.max-reported-errors}")
+  private int maxReportedErrors;
+
+  @Override
+  public ImportReport importRecipes(InputStream ndjson, String username) {
+    var authorId = userRepository.findByUsername(username).map(User::getId).orElseThrow(
+        () -> new UserNotFoundException("User with username %s not found".formatted(username)));
+    var ingredientIds = StreamEx.of(ingredientRepository.findAllRefs())
+        .toMap(ref -> normalize(ref.getName()), IngredientRef::getId, (first, second) -> first);
+    var report = new ReportBuilder(maxReportedErrors);
+    var chunk = new ArrayList<PendingRecipe>(chunkSize);
+    try (var reader = new BufferedReader(new InputStreamReader(ndjson, UTF_8))) {
+      var lineNumber = 0L;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) {
+          continue;
+        }
+        parse(line, lineNumber, ingredientIds, report).ifPresent(chunk::add);
+        if (chunk.size() == chunkSize) {
+          write(chunk, authorId, report);
+          chunk.clear();
+        }
+      }
+    } catch (IOException e) {
+      throw new RecipeImportException("Failed to read import stream");
+    }
+    write(chunk, authorId, report);
+    return report.build();
+  }
+
+  private Optional<PendingRecipe> parse(String line, long lineNumber,
+                                        Map<String, Long> ingredientIds,
+                                        ReportBuilder report) {
+    RecipeImportLine recipeLine;
+    try {
+      recipeLine = objectMapper.readValue(line, RecipeImportLine.class);
+    } catch (JsonProcessingException e) {
+      report.fail(lineNumber, "Malformed JSON: %s".formatted(e.getOriginalMessage()));
+      return Optional.empty();
+    }
+    var violations = validator.validate(recipeLine);
+    if (!violations.isEmpty()) {
+      report.fail(lineNumber, StreamEx.of(violations)
+          .map(violation -> "%s: %s".formatted(violation.getPropertyPath(), violation.getMessage()))
+          .sorted()
+          .joining(", "));
+      return Optional.empty();
+    }
+    var unknown = StreamEx.of(recipeLine.getIngredients())
+        .remove(name -> ingredientIds.containsKey(normalize(name)))
+        .toList();
+    if (!unknown.isEmpty()) {
+      report.fail(lineNumber, "Unknown ingredients %s".formatted(unknown));
+      return Optional.empty();
+    }
+    var ids = StreamEx.of(recipeLine.getIngredients())
+        .map(name -> ingredientIds.get(normalize(name)))
+        .distinct()
+        .toList();
+    return Optional.of(new PendingRecipe(lineNumber, recipeLine, ids));
+  }
+
+  private void write(List<PendingRecipe> chunk, Long authorId, ReportBuilder report) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        var author = entityManager.getReference(User.class, authorId);
+        var links = new ArrayList<Object[]>();
+        for (var pending : chunk) {
+          var recipe = toRecipe(pending.getLine(), author);
+          recipe.setIngredientCount(pending.getIngredientIds().size());
+          entityManager.persist(recipe);
+          pending.getIngredientIds()
+              .forEach(ingredientId -> links.add(new Object[] {recipe.getId(), ingredientId}));
+          ingredientIndex.add(recipe.getId(), pending.getIngredientIds());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO recipes_ingredients (recipe_id, ingredient_id) VALUES (?, ?)", links);
+        // one counter statement per distinct usage count rather than per ingredient
+        var usages = StreamEx.of(chunk)
+            .flatCollection(PendingRecipe::getIngredientIds)
+            .groupingBy(Function.identity(), Collectors.counting());
+        EntryStream.of(usages).invert().grouping()
+            .forEach((delta, ingredientIds) ->
+                ingredientCounterRepository.addToRecipeCount(ingredientIds, delta));
+      });
+      report.succeed(chunk.size());
+    } catch (DataAccessException | PersistenceException | TransactionException e) {
+      chunk.forEach(pending -> report.fail(pending.getLineNumber(),
+          "Rejected with its chunk: %s".formatted(e.getMessage())));
+    }
+  }
+
+  private Recipe toRecipe(RecipeImportLine line, User author) {
+    var recipe = new Recipe();
+    recipe.setName(line.getName());
+    recipe.setDescription(line.getDescription());
+    recipe.setSecondsDuration(line.getSecondsDuration());
+    recipe.setProductsCost(line.getProductsCost());
+    recipe.setComplexity(line.getComplexity());
+    recipe.setAuthor(author);
+    return recipe;
+  }
+
+  private static String normalize(String name) {
+    return name == null ? "" : name.strip().toLowerCase(Locale.ROOT);
+  }
+
+  @Getter
+  @AllArgsConstructor
+  private static class PendingRecipe {
+    private final long lineNumber;
+    private final RecipeImportLine line;
+    private final List<Long> ingredientIds;
+  }
+
+  private static class ReportBuilder {
+    private final int maxErrors;
+    private final List<ImportReport.LineError> errors = new ArrayList<>();
+    private int imported;
+    private int failed;
+
+    ReportBuilder(int maxErrors) {
+      this.maxErrors = maxErrors;
+    }
+
+    void succeed(int count) {
+      imported += count;
+    }
+
+    void fail(long line, String message) {
+      failed++;
+      if (errors.size() < maxErrors) {
+        errors.add(new ImportReport.LineError(line, message));
+      }
+    }
+
+    ImportReport build() {
+      return new ImportReport(imported, failed, List.copyOf(errors));
+    }
+  }
+}
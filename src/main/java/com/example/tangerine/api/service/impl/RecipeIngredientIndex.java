@@ -0,0 +1,198 @@
+package com.example.tangerine.api.service.impl;
+
+import com.example.tangerine.api.exception.InvalidCursorException;
+import com.example.tangerine.api.repository.RecipeRepository;
+import com.example.tangerine.api.service.IngredientMatch;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+@RequiredArgsConstructor
+public class RecipeIngredientIndex implements SmartInitializingSingleton {
+
+  private final RecipeRepository recipeRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final Map<Long, Roaring64Bitmap> postings = new HashMap<>();
+  private final Map<Long, Roaring64Bitmap> ingredientsByRecipe = new HashMap<>();
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // Runs before the web server starts, so no query ever sees a half-loaded index.
+  @Override
+  public void afterSingletonsInstantiated() {
+    write(() -> {
+      transactionTemplate.executeWithoutResult(status -> {
+        try (var links = recipeRepository.streamIngredientLinks()) {
+          links.forEach(link -> link(link.getIngredientId(), link.getRecipeId()));
+        }
+      });
+      postings.values().forEach(Roaring64Bitmap::runOptimize);
+      ingredientsByRecipe.values().forEach(Roaring64Bitmap::runOptimize);
+    });
+  }
+
+  public void add(Long recipeId, Collection<Long> ingredientIds) {
+    var ids = Set.copyOf(ingredientIds);
+    afterCommit(() -> ids.forEach(ingredientId -> link(ingredientId, recipeId)));
+  }
+
+  public void remove(Long recipeId, Collection<Long> ingredientIds) {
+    var ids = Set.copyOf(ingredientIds);
+    afterCommit(() -> ids.forEach(ingredientId -> unlink(ingredientId, recipeId)));
+  }
+
+  public void removeRecipe(Long recipeId) {
+    afterCommit(() -> {
+      var ingredients = ingredientsByRecipe.get(recipeId);
+      if (ingredients != null) {
+        ingredients.clone().forEach(ingredientId -> unlink(ingredientId, recipeId));
+      }
+    });
+  }
+
+  public void removeIngredient(Long ingredientId) {
+    afterCommit(() -> {
+      var posting = postings.get(ingredientId);
+      if (posting != null) {
+        posting.clone().forEach(recipeId -> unlink(ingredientId, recipeId));
+      }
+    });
+  }
+
+  public List<Long> find(Set<Long> ingredientIds, IngredientMatch match, Long afterId,
+                         int limit) {
+    if (afterId != null && afterId < 0) {
+      throw new InvalidCursorException("Cursor id %s is out of range".formatted(afterId));
+    }
+    lock.readLock().lock();
+    try {
+      return switch (match) {
+        case ALL -> page(all(ingredientIds), afterId, limit, recipeId -> true);
+        case ANY -> page(any(ingredientIds), afterId, limit, recipeId -> true);
+        case SUBSET -> subset(ingredientIds, afterId, limit);
+      };
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private Roaring64Bitmap all(Set<Long> ingredientIds) {
+    var selected = new ArrayList<Roaring64Bitmap>(ingredientIds.size());
+    for (var ingredientId : ingredientIds) {
+      var posting = postings.get(ingredientId);
+      if (posting == null) {
+        return new Roaring64Bitmap();
+      }
+      selected.add(posting);
+    }
+    if (selected.isEmpty()) {
+      return new Roaring64Bitmap();
+    }
+    selected.sort(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality));
+    var matches = selected.get(0).clone();
+    for (var i = 1; i < selected.size() && !matches.isEmpty(); i++) {
+      matches.and(selected.get(i));
+    }
+    return matches;
+  }
+
+  private Roaring64Bitmap any(Set<Long> ingredientIds) {
+    var matches = new Roaring64Bitmap();
+    ingredientIds.stream()
+        .map(postings::get)
+        .filter(Objects::nonNull)
+        .forEach(matches::or);
+    return matches;
+  }
+
+  // Recipes that need nothing outside the given ingredients: candidates using at least one
+  // of them are checked one by one against their own ingredients, and only until the page is
+  // full.
+  private List<Long> subset(Set<Long> ingredientIds, Long afterId, int limit) {
+    return page(any(ingredientIds), afterId, limit, recipeId -> {
+      var ingredients = ingredientsByRecipe.get(recipeId).getLongIterator();
+      while (ingredients.hasNext()) {
+        if (!ingredientIds.contains(ingredients.next())) {
+          return false;
+        }
+      }
+      return true;
+    });
+  }
+
+  // Ids are never negative, so the unsigned order of the bitmap is their numeric order.
+  private static List<Long> page(Roaring64Bitmap matches, Long afterId, int limit,
+                                 LongPredicate accept) {
+    var recipeIds = new ArrayList<Long>(limit);
+    var iterator = afterId == null
+        ? matches.getLongIterator()
+        : matches.getLongIteratorFrom(afterId + 1);
+    while (iterator.hasNext() && recipeIds.size() < limit) {
+      var recipeId = iterator.next();
+      if (accept.test(recipeId)) {
+        recipeIds.add(recipeId);
+      }
+    }
+    return recipeIds;
+  }
+
+  private void link(Long ingredientId, Long recipeId) {
+    postings.computeIfAbsent(ingredientId, id -> new Roaring64Bitmap()).addLong(recipeId);
+    ingredientsByRecipe.computeIfAbsent(recipeId, id -> new Roaring64Bitmap())
+        .addLong(ingredientId);
+  }
+
+  private void unlink(Long ingredientId, Long recipeId) {
+    var posting = postings.get(ingredientId);
+    if (posting != null) {
+      posting.removeLong(recipeId);
+      if (posting.isEmpty()) {
+        postings.remove(ingredientId);
+      }
+    }
+    var ingredients = ingredientsByRecipe.get(recipeId);
+    if (ingredients != null) {
+      ingredients.removeLong(ingredientId);
+      if (ingredients.isEmpty()) {
+        ingredientsByRecipe.remove(recipeId);
+      }
+    }
+  }
+
+  private void afterCommit(Runnable update) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      write(update);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        write(update);
+      }
+    });
+  }
+
+  private void write(Runnable update) {
+    lock.writeLock().lock();
+    try {
+      update.run();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+}
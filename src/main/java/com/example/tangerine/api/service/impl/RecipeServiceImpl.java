@@ -1,27 +1,55 @@
 package com.example.tangerine.api.service.impl;
 
-import com.example.tangerine.api.domain.Comment;
+import static com.example.tangerine.api.repository.RecipeSpecifications.after;
+import static com.example.tangerine.api.repository.RecipeSpecifications.costBetween;
+import static com.example.tangerine.api.repository.RecipeSpecifications.durationBetween;
+import static com.example.tangerine.api.repository.RecipeSpecifications.hasAuthor;
+import static com.example.tangerine.api.repository.RecipeSpecifications.hasComplexity;
+import static com.example.tangerine.api.repository.RecipeSpecifications.hasValue;
+import static org.springframework.data.jpa.domain.Specification.where;
+
 import com.example.tangerine.api.domain.Ingredient;
 import com.example.tangerine.api.domain.Menu;
 import com.example.tangerine.api.domain.Recipe;
 import com.example.tangerine.api.exception.ImageNotFoundException;
-import com.example.tangerine.api.exception.ImageUploadException;
+import com.example.tangerine.api.exception.IngredientNotFoundException;
+import com.example.tangerine.api.exception.InvalidCursorException;
 import com.example.tangerine.api.exception.RecipeNotFoundException;
 import com.example.tangerine.api.exception.UserNotFoundException;
+import com.example.tangerine.api.repository.IngredientCounterRepository;
 import com.example.tangerine.api.repository.IngredientRepository;
+import com.example.tangerine.api.repository.MenuRepository;
 import com.example.tangerine.api.repository.RecipeRepository;
 import com.example.tangerine.api.repository.UserRepository;
+import com.example.tangerine.api.repository.projection.EntityVersion;
+import com.example.tangerine.api.repository.projection.RecipeSearchHit;
+import com.example.tangerine.api.repository.projection.RecipeView;
+import com.example.tangerine.api.service.Cursor;
+import com.example.tangerine.api.service.CursorPage;
+import com.example.tangerine.api.service.IdCursor;
+import com.example.tangerine.api.service.ImageContent;
+import com.example.tangerine.api.service.ImageVariant;
+import com.example.tangerine.api.service.IngredientMatch;
+import com.example.tangerine.api.service.PresignedUpload;
+import com.example.tangerine.api.service.PresignedUrl;
+import com.example.tangerine.api.service.RecipeFilter;
 import com.example.tangerine.api.service.RecipeService;
+import com.example.tangerine.api.service.RecipeSort;
+import com.example.tangerine.api.service.RecipeSortCursor;
+import com.example.tangerine.api.service.RequestLookupCache;
+import com.example.tangerine.api.service.SearchCursor;
 import com.example.tangerine.api.service.StorageService;
-import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import one.util.streamex.StreamEx;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpRange;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -33,9 +61,18 @@ public class RecipeServiceImpl implements RecipeService {
   private final RecipeRepository recipeRepository;
   private final UserRepository userRepository;
   private final IngredientRepository ingredientRepository;
+  private final IngredientCounterRepository ingredientCounterRepository;
+  private final MenuRepository menuRepository;
   private final StorageService storageService;
+  private final PresignedImages presignedImages;
+  private final ImageUploads imageUploads;
+  private final ImageVariants imageVariants;
+  private final RecipeIngredientIndex ingredientIndex;
+  private final RequestLookupCache lookups;
   @Value("${aws.bucket}")
   private String bucket;
+  @Value("${pagination.max-page-size}")
+  private int maxPageSize;
 
   @Override
   @Transactional
@@ -43,23 +80,103 @@ public class RecipeServiceImpl implements RecipeService {
     recipe.setAuthor(userRepository.findByUsername(username)
         .orElseThrow(() -> new UserNotFoundException(
             "User with username %s not found".formatted(username))));
-    StreamEx.of(ingredientIndices)
-        .mapPartial(ingredientRepository::findById)
-        .forEach(recipe::addIngredient);
-    return recipeRepository.save(recipe);
+    var ingredientIds = findIngredientIds(ingredientIndices);
+    var created = recipeRepository.save(recipe);
+    if (!ingredientIds.isEmpty()) {
+      var added = recipeRepository.addIngredients(created.getId(), ingredientIds);
+      recipeRepository.addToIngredientCount(Set.of(created.getId()), added);
+      ingredientCounterRepository.addToRecipeCount(ingredientIds, 1);
+      ingredientIndex.add(created.getId(), ingredientIds);
+      refreshCounters(created);
+    }
+    return created;
   }
 
   @Override
+  @Transactional
   public Recipe update(Recipe recipe, List<Long> ingredientIndices) {
-    recipe.rewriteIngredients(StreamEx.of(ingredientIndices)
-        .mapPartial(ingredientRepository::findById)
-        .toList());
-    return recipeRepository.save(recipe);
+    var updated = recipeRepository.save(recipe);
+    if (ingredientIndices != null) {
+      var delta = rewriteIngredients(updated.getId(), findIngredientIds(ingredientIndices));
+      if (delta != 0) {
+        refreshCounters(updated);
+      }
+    }
+    return updated;
   }
 
   @Override
-  public List<Recipe> findAll() {
-    return recipeRepository.findAll();
+  public CursorPage<RecipeView> findAll(Cursor cursor, int limit) {
+    var request = CursorPage.request(limit, maxPageSize);
+    var rows = cursor == null
+        ? recipeRepository.findFirstPage(request)
+        : recipeRepository.findPageAfter(cursor.getCreatedAt(), cursor.getId(), request);
+    return CursorPage.of(rows, request,
+        recipe -> new Cursor(recipe.getCreatedAt(), recipe.getId()));
+  }
+
+  @Override
+  public CursorPage<RecipeView> search(String text, SearchCursor cursor, int limit) {
+    var request = CursorPage.request(limit, maxPageSize);
+    if (text == null || text.isBlank()) {
+      return new CursorPage<>(List.of(), null);
+    }
+    var hits = cursor == null
+        ? recipeRepository.searchFirstPage(text, request)
+        : recipeRepository.searchPageAfter(text, cursor.getScore(), cursor.getId(), request);
+    var page = CursorPage.of(hits, request,
+        hit -> new SearchCursor(hit.getScore(), hit.getId()));
+    var ids = page.getContent().stream().map(RecipeSearchHit::getId).toList();
+    if (ids.isEmpty()) {
+      return new CursorPage<>(List.of(), null);
+    }
+    var views = StreamEx.of(recipeRepository.findViewsByIdIn(ids))
+        .toMap(RecipeView::getId, Function.identity());
+    var content = StreamEx.of(ids).map(views::get).nonNull().toList();
+    return new CursorPage<>(content, page.getNext());
+  }
+
+  @Override
+  public CursorPage<RecipeView> findByIngredients(Set<Long> ingredientIds, IngredientMatch match,
+                                                  IdCursor cursor, int limit) {
+    var request = CursorPage.request(limit, maxPageSize);
+    if (ingredientIds.isEmpty()) {
+      return new CursorPage<>(List.of(), null);
+    }
+    var recipeIds = ingredientIndex.find(ingredientIds, match,
+        cursor == null ? null : cursor.getId(), request.getPageSize());
+    var page = CursorPage.of(recipeIds, request, IdCursor::new);
+    if (page.getContent().isEmpty()) {
+      return new CursorPage<>(List.of(), null);
+    }
+    var views = StreamEx.of(recipeRepository.findViewsByIdIn(page.getContent()))
+        .toMap(RecipeView::getId, Function.identity());
+    var content = StreamEx.of(page.getContent()).map(views::get).nonNull().toList();
+    return new CursorPage<>(content, page.getNext());
+  }
+
+  @Override
+  public CursorPage<RecipeView> filter(RecipeFilter filter, RecipeSort sort,
+                                       Sort.Direction direction, RecipeSortCursor cursor,
+                                       int limit) {
+    if (cursor != null && !cursor.matches(sort, direction)) {
+      throw new InvalidCursorException("Cursor does not belong to sort %s %s"
+          .formatted(sort.getKey(), direction));
+    }
+    var request = CursorPage.request(limit, maxPageSize);
+    var specification = where(hasValue(sort.getAttribute()))
+        .and(hasComplexity(filter.getComplexity()))
+        .and(hasAuthor(filter.getAuthorId()))
+        .and(durationBetween(filter.getMinDuration(), filter.getMaxDuration()))
+        .and(costBetween(filter.getMinCost(), filter.getMaxCost()));
+    if (cursor != null) {
+      specification = specification.and(after(sort.getAttribute(), direction,
+          sort.valueOf(cursor.getKey()), cursor.getId()));
+    }
+    var rows = recipeRepository.findViews(specification, sort.toSort(direction),
+        request.getPageSize());
+    return CursorPage.of(rows, request,
+        recipe -> new RecipeSortCursor(sort, direction, sort.keyOf(recipe), recipe.getId()));
   }
 
   @Override
@@ -68,62 +185,138 @@ public class RecipeServiceImpl implements RecipeService {
   }
 
   @Override
-  @Transactional
-  public Optional<Set<Menu>> getMenus(Long recipeId) {
-    return recipeRepository.findById(recipeId).map(Recipe::getMenus).map(Set::copyOf);
+  @Transactional(readOnly = true)
+  public void exportAll(Consumer<RecipeView> consumer) {
+    try (var recipes = recipeRepository.streamAll()) {
+      recipes.forEach(consumer);
+    }
+  }
+
+  @Override
+  public Optional<RecipeView> findViewById(Long recipeId) {
+    return recipeRepository.findViewById(recipeId);
+  }
+
+  @Override
+  public Optional<EntityVersion> findVersionById(Long recipeId) {
+    return recipeRepository.findVersionById(recipeId);
   }
 
   @Override
   @Transactional
-  public Optional<List<Comment>> getComments(Long recipeId) {
-    return recipeRepository.findById(recipeId).map(Recipe::getComments).map(List::copyOf);
+  public Optional<Set<Menu>> getMenus(Long recipeId) {
+    return recipeRepository.findWithMenusById(recipeId).map(Recipe::getMenus).map(Set::copyOf);
   }
 
   @Override
   @Transactional
   public void deleteById(Long recipeId) {
-    recipeRepository.findById(recipeId)
-        .ifPresent(recipe -> recipe.getMenus()
-            .forEach(menu -> menu.removeRecipe(recipe)));
+    var ingredientIds = recipeRepository.findIngredientIdsById(recipeId);
+    if (!ingredientIds.isEmpty()) {
+      ingredientCounterRepository.addToRecipeCount(ingredientIds, -1);
+    }
+    // Unlink first so the menus are flushed before the counter update bumps their version.
+    recipeRepository.findWithMenusById(recipeId).ifPresent(recipe -> {
+      var menus = List.copyOf(recipe.getMenus());
+      menus.forEach(menu -> menu.removeRecipe(recipe));
+      if (!menus.isEmpty()) {
+        menuRepository.addToRecipeCount(StreamEx.of(menus).map(Menu::getId).toSet(), -1);
+      }
+    });
     recipeRepository.deleteById(recipeId);
+    ingredientIndex.removeRecipe(recipeId);
   }
 
   @Override
   @Transactional
   public Optional<Set<Ingredient>> getIngredients(Long recipeId) {
-    return recipeRepository.findById(recipeId).map(Recipe::getIngredients).map(Set::copyOf);
+    return recipeRepository.findWithIngredientsById(recipeId)
+        .map(Recipe::getIngredients)
+        .map(Set::copyOf)
+        .map(ingredients -> {
+          var counts = ingredientCounterRepository.findRecipeCounts(
+              StreamEx.of(ingredients).map(Ingredient::getId).toSet());
+          ingredients.forEach(ingredient ->
+              ingredient.setRecipeCount(counts.getOrDefault(ingredient.getId(), 0L)));
+          return ingredients;
+        });
   }
 
   @Override
   @Transactional
-  public String addImage(Long recipeId, MultipartFile file) {
-    if (!recipeRepository.existsById(recipeId)) {
+  public void addIngredient(Long recipeId, Long ingredientId) {
+    if (!lookups.exists(Recipe.class, recipeId, () -> recipeRepository.existsById(recipeId))) {
       throw new RecipeNotFoundException("Recipe with id %s not found".formatted(recipeId));
     }
-    var imageKey = UUID.randomUUID().toString();
-    try {
-      storageService.uploadImage(
-          file.getBytes(),
-          "recipe-images/%s/%s".formatted(recipeId, imageKey),
-          bucket);
-    } catch (IOException e) {
-      var fileName = file.getOriginalFilename();
-      throw new ImageUploadException("Failed to upload image %s".formatted(fileName));
+    if (!ingredientRepository.existsById(ingredientId)) {
+      throw new IngredientNotFoundException(
+          "Ingredient with id %s not found".formatted(ingredientId));
+    }
+    if (recipeRepository.addIngredients(recipeId, Set.of(ingredientId)) > 0) {
+      recipeRepository.addToIngredientCount(Set.of(recipeId), 1);
+      ingredientCounterRepository.addToRecipeCount(Set.of(ingredientId), 1);
+      ingredientIndex.add(recipeId, Set.of(ingredientId));
     }
-    recipeRepository.updateImageKeyById(recipeId, imageKey);
-    return imageKey;
   }
 
   @Override
-  public Resource getImage(Long recipeId) {
-    var recipe = recipeRepository.findById(recipeId).orElseThrow(
-        () -> new RecipeNotFoundException("Recipe with id %s not found".formatted(recipeId)));
-    if (recipe.getImageKey() == null || recipe.getImageKey().isBlank()) {
-      throw new ImageNotFoundException("Image of recipe with id %s not found".formatted(recipeId));
+  @Transactional
+  public void removeIngredient(Long recipeId, Long ingredientId) {
+    if (!lookups.exists(Recipe.class, recipeId, () -> recipeRepository.existsById(recipeId))) {
+      throw new RecipeNotFoundException("Recipe with id %s not found".formatted(recipeId));
+    }
+    if (recipeRepository.removeIngredients(recipeId, Set.of(ingredientId)) > 0) {
+      recipeRepository.addToIngredientCount(Set.of(recipeId), -1);
+      ingredientCounterRepository.addToRecipeCount(Set.of(ingredientId), -1);
+      ingredientIndex.remove(recipeId, Set.of(ingredientId));
     }
-    return storageService.findByKey(
-        "recipe-images/%s/%s".formatted(recipeId, recipe.getImageKey()),
-        bucket);
+  }
+
+  @Override
+  public CompletableFuture<String> addImage(Long recipeId, MultipartFile file) {
+    if (!lookups.exists(Recipe.class, recipeId, () -> recipeRepository.existsById(recipeId))) {
+      throw new RecipeNotFoundException("Recipe with id %s not found".formatted(recipeId));
+    }
+    return imageUploads.upload("recipe-images/%s".formatted(recipeId), file)
+        .thenApply(imageKey -> {
+          recipeRepository.updateImageKeyById(recipeId, imageKey);
+          return imageKey;
+        });
+  }
+
+  @Override
+  public String getImageTag(Long recipeId, ImageVariant variant) {
+    return imageVariants.tag(getImageObjectKey(recipeId), variant);
+  }
+
+  @Override
+  public CompletableFuture<ImageContent> getImage(Long recipeId, ImageVariant variant,
+                                                  HttpRange range) {
+    return imageVariants.find(getImageObjectKey(recipeId), variant, range);
+  }
+
+  @Override
+  public PresignedUrl getImageUrl(Long recipeId, ImageVariant variant) {
+    return presignedImages.presign(getImageObjectKey(recipeId), variant);
+  }
+
+  @Override
+  public PresignedUpload createImageUpload(Long recipeId) {
+    if (!lookups.exists(Recipe.class, recipeId, () -> recipeRepository.existsById(recipeId))) {
+      throw new RecipeNotFoundException("Recipe with id %s not found".formatted(recipeId));
+    }
+    return presignedImages.createUpload("recipe-images/%s".formatted(recipeId));
+  }
+
+  @Override
+  @Transactional
+  public String confirmImage(Long recipeId, String imageKey) {
+    if (!lookups.exists(Recipe.class, recipeId, () -> recipeRepository.existsById(recipeId))) {
+      throw new RecipeNotFoundException("Recipe with id %s not found".formatted(recipeId));
+    }
+    presignedImages.confirmUpload("recipe-images/%s".formatted(recipeId), imageKey);
+    recipeRepository.updateImageKeyById(recipeId, imageKey);
+    return imageKey;
   }
 
   @Override
@@ -132,11 +325,62 @@ public class RecipeServiceImpl implements RecipeService {
     var recipe = recipeRepository.findById(recipeId).orElseThrow(
         () -> new RecipeNotFoundException("Recipe with id %s not found".formatted(recipeId)));
     if (recipe.getImageKey() != null) {
-      storageService.deleteByKey(
-          "recipe-images/%s/%s".formatted(recipeId, recipe.getImageKey()),
-          bucket
-      );
+      var objectKey = "recipe-images/%s/%s".formatted(recipeId, recipe.getImageKey());
+      storageService.deleteByKey(objectKey, bucket);
+      imageVariants.delete(objectKey);
       recipe.setImageKey(null);
     }
   }
+
+  private long rewriteIngredients(Long recipeId, Set<Long> ingredientIds) {
+    var current = recipeRepository.findIngredientIdsById(recipeId);
+    var removed = StreamEx.of(current).remove(ingredientIds::contains).toSet();
+    var added = StreamEx.of(ingredientIds).remove(current::contains).toSet();
+    var delta = 0L;
+    if (!removed.isEmpty()) {
+      delta -= recipeRepository.removeIngredients(recipeId, removed);
+      ingredientCounterRepository.addToRecipeCount(removed, -1);
+      ingredientIndex.remove(recipeId, removed);
+    }
+    if (!added.isEmpty()) {
+      delta += recipeRepository.addIngredients(recipeId, added);
+      ingredientCounterRepository.addToRecipeCount(added, 1);
+      ingredientIndex.add(recipeId, added);
+    }
+    if (delta != 0) {
+      recipeRepository.addToIngredientCount(Set.of(recipeId), delta);
+    }
+    return delta;
+  }
+
+  // The counter statements bump the row in SQL, so the returned entity reads it back.
+  private void refreshCounters(Recipe recipe) {
+    var view = recipeRepository.findViewById(recipe.getId()).orElseThrow();
+    recipe.setIngredientCount(view.getIngredientCount());
+    recipe.setVersion(view.getVersion());
+  }
+
+  private Set<Long> findIngredientIds(List<Long> ingredientIndices) {
+    var ids = Set.copyOf(ingredientIndices);
+    var found = ids.isEmpty() ? Set.<Long>of() : ingredientRepository.findExistingIds(ids);
+    if (found.size() != ids.size()) {
+      var missing = StreamEx.of(ids).remove(found::contains).sorted().toList();
+      throw new IngredientNotFoundException(
+          "Ingredients with ids %s not found".formatted(missing));
+    }
+    return ids;
+  }
+
+  private String getImageObjectKey(Long recipeId) {
+    return lookups.get("Recipe#%s:image".formatted(recipeId), () -> loadImageObjectKey(recipeId));
+  }
+
+  private String loadImageObjectKey(Long recipeId) {
+    var imageKey = recipeRepository.findImageKeyById(recipeId).orElseThrow(
+        () -> new RecipeNotFoundException("Recipe with id %s not found".formatted(recipeId)));
+    if (imageKey.isBlank()) {
+      throw new ImageNotFoundException("Image of recipe with id %s not found".formatted(recipeId));
+    }
+    return "recipe-images/%s/%s".formatted(recipeId, imageKey);
+  }
 }
@@ -0,0 +1,30 @@
+package com.example.tangerine.api.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StorageWorkers {
+  private final ExecutorService executor;
+
+  public StorageWorkers(@Value("${storage.workers.threads}") int threads,
+                        @Value("${storage.workers.queue-capacity}") int queueCapacity) {
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("storage-"));
+  }
+
+  public ExecutorService getExecutor() {
+    return executor;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+}
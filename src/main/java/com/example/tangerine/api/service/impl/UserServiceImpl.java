@@ -5,26 +5,43 @@ import com.example.tangerine.api.domain.Menu;
 import com.example.tangerine.api.domain.Recipe;
 import com.example.tangerine.api.domain.User;
 import com.example.tangerine.api.exception.ImageNotFoundException;
-import com.example.tangerine.api.exception.ImageUploadException;
 import com.example.tangerine.api.exception.InvalidPasswordException;
 import com.example.tangerine.api.exception.RoleNotFoundException;
 import com.example.tangerine.api.exception.UserAlreadyExistsException;
 import com.example.tangerine.api.exception.UserNotFoundException;
+import com.example.tangerine.api.repository.CommentRepository;
+import com.example.tangerine.api.repository.IngredientCounterRepository;
+import com.example.tangerine.api.repository.MenuRepository;
+import com.example.tangerine.api.repository.RecipeRepository;
 import com.example.tangerine.api.repository.RoleRepository;
 import com.example.tangerine.api.repository.UserRepository;
+import com.example.tangerine.api.repository.projection.EntityVersion;
 import com.example.tangerine.api.security.JwtTokenProvider;
+import com.example.tangerine.api.service.Cursor;
+import com.example.tangerine.api.service.CursorPage;
+import com.example.tangerine.api.service.ImageContent;
+import com.example.tangerine.api.service.ImageVariant;
+import com.example.tangerine.api.service.PresignedUpload;
+import com.example.tangerine.api.service.PresignedUrl;
+import com.example.tangerine.api.service.RequestLookupCache;
 import com.example.tangerine.api.service.StorageService;
+import com.example.tangerine.api.service.UserProfile;
 import com.example.tangerine.api.service.UserService;
-import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import one.util.streamex.EntryStream;
+import one.util.streamex.StreamEx;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
+import org.springframework.http.HttpRange;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -33,12 +50,25 @@ import org.springframework.web.multipart.MultipartFile;
 public class UserServiceImpl implements UserService {
 
   private final UserRepository userRepository;
+  private final RecipeRepository recipeRepository;
+  private final MenuRepository menuRepository;
+  private final CommentRepository commentRepository;
+  private final IngredientCounterRepository ingredientCounterRepository;
   private final JwtTokenProvider jwtTokenProvider;
   private final PasswordEncoder passwordEncoder;
   private final RoleRepository roleRepository;
   private final StorageService storageService;
+  private final PresignedImages presignedImages;
+  private final ImageUploads imageUploads;
+  private final ImageVariants imageVariants;
+  private final RequestLookupCache lookups;
+  private final RecipeIngredientIndex ingredientIndex;
   @Value("${aws.bucket}")
   private String bucket;
+  @Value("${pagination.max-page-size}")
+  private int maxPageSize;
+  @Value("${profile.section.max-size}")
+  private int maxSectionSize;
 
   @Override
   @Transactional
@@ -68,7 +98,7 @@ public class UserServiceImpl implements UserService {
   }
 
   @Override
-  @Transactional(isolation = Isolation.REPEATABLE_READ)
+  @Transactional
   public User update(User user, String newPassword) {
     if (isUsernameInUse(user)) {
       throw new UserAlreadyExistsException(
@@ -81,8 +111,13 @@ public class UserServiceImpl implements UserService {
   }
 
   @Override
-  public List<User> findAll() {
-    return userRepository.findAll();
+  public CursorPage<User> findAll(Cursor cursor, int limit) {
+    var request = CursorPage.request(limit, maxPageSize);
+    var rows = cursor == null
+        ? userRepository.findFirstPage(request)
+        : userRepository.findPageAfter(cursor.getCreatedAt(), cursor.getId(), request);
+    return CursorPage.of(rows, request,
+        user -> new Cursor(user.getCreatedAt(), user.getId()));
   }
 
   @Override
@@ -90,6 +125,11 @@ public class UserServiceImpl implements UserService {
     return userRepository.findById(userId);
   }
 
+  @Override
+  public Optional<EntityVersion> findVersionById(Long userId) {
+    return userRepository.findVersionById(userId).map(EntityVersion::of);
+  }
+
   @Override
   public Optional<User> findByUsername(String username) {
     return userRepository.findByUsername(username);
@@ -107,43 +147,94 @@ public class UserServiceImpl implements UserService {
     return userRepository.findById(userId).map(User::getMenus).map(List::copyOf);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<UserProfile> getProfile(Long userId, int recipeLimit, int menuLimit) {
+    // Each section fetches one row past its limit to tell whether more exist.
+    return userRepository.findViewById(userId).map(user -> {
+      var recipeRequest = CursorPage.request(recipeLimit, maxSectionSize);
+      var recipes = recipeRepository.findLatestByAuthorId(userId, recipeRequest);
+      var recipeCount = recipeRequest.getPageSize() - 1;
+      var menuRequest = CursorPage.request(menuLimit, maxSectionSize);
+      var menus = menuRepository.findLatestByAuthorId(userId, menuRequest);
+      var menuCount = menuRequest.getPageSize() - 1;
+      return new UserProfile(user,
+          List.copyOf(recipes.subList(0, Math.min(recipes.size(), recipeCount))),
+          recipes.size() > recipeCount,
+          List.copyOf(menus.subList(0, Math.min(menus.size(), menuCount))),
+          menus.size() > menuCount);
+    });
+  }
+
   @Override
   @Transactional
   public void deleteById(Long id) {
+    // The cascade below removes the user's recipes, menus and comments without going through
+    // the counter queries, so the counters of the rows that survive are adjusted first.
+    var recipeIds = recipeRepository.findIdsByAuthorId(id);
+    if (!recipeIds.isEmpty()) {
+      subtract(recipeRepository.findLinkedIngredientIdsByIdIn(recipeIds),
+          ingredientCounterRepository::addToRecipeCount);
+      subtract(menuRepository.findLinkedMenuIdsByRecipeIds(recipeIds),
+          menuRepository::addToRecipeCount);
+      // Menu owns the menus_recipes rows, so deleting a recipe would leave them behind.
+      menuRepository.removeRecipeLinks(recipeIds);
+    }
+    subtract(menuRepository.findLinkedRecipeIdsByAuthorId(id), recipeRepository::addToMenuCount);
+    var ownRecipeIds = Set.copyOf(recipeIds);
+    StreamEx.of(commentRepository.findRecipeIdsByAuthorId(id))
+        .remove(ownRecipeIds::contains)
+        .groupingBy(Function.identity(), Collectors.counting())
+        .forEach((recipeId, n) -> recipeRepository.addToCommentCount(recipeId, -n));
     userRepository.deleteById(id);
+    recipeIds.forEach(ingredientIndex::removeRecipe);
   }
 
   @Override
-  @Transactional
-  public String addImage(Long userId, MultipartFile file) {
-    if (!userRepository.existsById(userId)) {
+  public CompletableFuture<String> addImage(Long userId, MultipartFile file) {
+    if (!lookups.exists(User.class, userId, () -> userRepository.existsById(userId))) {
       throw new UserNotFoundException("User with id %s not found".formatted(userId));
     }
-    var imageKey = UUID.randomUUID().toString();
-    try {
-      storageService.uploadImage(
-          file.getBytes(),
-          "user-images/%s/%s".formatted(userId, imageKey),
-          bucket);
-    } catch (IOException e) {
-      var fileName = file.getOriginalFilename();
-      throw new ImageUploadException("Failed to upload image %s".formatted(fileName));
+    return imageUploads.upload("user-images/%s".formatted(userId), file)
+        .thenApply(imageKey -> {
+          userRepository.updateImageKeyById(userId, imageKey);
+          return imageKey;
+        });
+  }
+
+  @Override
+  public String getImageTag(Long userId, ImageVariant variant) {
+    return imageVariants.tag(getImageObjectKey(userId), variant);
+  }
+
+  @Override
+  public CompletableFuture<ImageContent> getImage(Long userId, ImageVariant variant,
+                                                  HttpRange range) {
+    return imageVariants.find(getImageObjectKey(userId), variant, range);
+  }
+
+  @Override
+  public PresignedUrl getImageUrl(Long userId, ImageVariant variant) {
+    return presignedImages.presign(getImageObjectKey(userId), variant);
+  }
+
+  @Override
+  public PresignedUpload createImageUpload(Long userId) {
+    if (!lookups.exists(User.class, userId, () -> userRepository.existsById(userId))) {
+      throw new UserNotFoundException("User with id %s not found".formatted(userId));
     }
-    userRepository.updateImageKeyById(userId, imageKey);
-    return imageKey;
+    return presignedImages.createUpload("user-images/%s".formatted(userId));
   }
 
   @Override
-  public Resource getImage(Long userId) {
-    var user = userRepository.findById(userId).orElseThrow(
-        () -> new UserNotFoundException("User with id %s not found".formatted(userId))
-    );
-    if (user.getImageKey() == null || user.getImageKey().isBlank()) {
-      throw new ImageNotFoundException("Image of user with id %s not found".formatted(userId));
+  @Transactional
+  public String confirmImage(Long userId, String imageKey) {
+    if (!lookups.exists(User.class, userId, () -> userRepository.existsById(userId))) {
+      throw new UserNotFoundException("User with id %s not found".formatted(userId));
     }
-    return storageService.findByKey(
-        "user-images/%s/%s".formatted(user.getId(), user.getImageKey()),
-        bucket);
+    presignedImages.confirmUpload("user-images/%s".formatted(userId), imageKey);
+    userRepository.updateImageKeyById(userId, imageKey);
+    return imageKey;
   }
 
   @Override
@@ -153,10 +244,9 @@ public class UserServiceImpl implements UserService {
         () -> new UserNotFoundException("User with id %s not found".formatted(userId))
     );
     if (user.getImageKey() != null) {
-      storageService.deleteByKey(
-          "user-images/%s/%s".formatted(user.getId(), user.getImageKey()),
-          bucket
-      );
+      var objectKey = "user-images/%s/%s".formatted(user.getId(), user.getImageKey());
+      storageService.deleteByKey(objectKey, bucket);
+      imageVariants.delete(objectKey);
       user.setImageKey(null);
     }
   }
@@ -165,4 +255,26 @@ public class UserServiceImpl implements UserService {
     return userRepository.findByUsername(user.getUsername())
         .filter(found -> !found.getId().equals(user.getId())).isPresent();
   }
+
+  private String getImageObjectKey(Long userId) {
+    return lookups.get("User#%s:image".formatted(userId), () -> loadImageObjectKey(userId));
+  }
+
+  private String loadImageObjectKey(Long userId) {
+    var imageKey = userRepository.findImageKeyById(userId).orElseThrow(
+        () -> new UserNotFoundException("User with id %s not found".formatted(userId))
+    );
+    if (imageKey.isBlank()) {
+      throw new ImageNotFoundException("Image of user with id %s not found".formatted(userId));
+    }
+    return "user-images/%s/%s".formatted(userId, imageKey);
+  }
+
+  // ids repeat once per link, so all rows losing the same number of links share one update
+  private static void subtract(List<Long> ids, BiConsumer<Collection<Long>, Long> addToCount) {
+    EntryStream.of(StreamEx.of(ids).groupingBy(Function.identity(), Collectors.counting()))
+        .invert()
+        .grouping()
+        .forEach((n, grouped) -> addToCount.accept(grouped, -n));
+  }
 }
@@ -0,0 +1,84 @@
+package com.example.tangerine.api.web;
+
+import com.example.tangerine.api.exception.EntityVersionMismatchException;
+import com.example.tangerine.api.repository.projection.EntityVersion;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EntityResponses {
+
+  // Conditional requests are answered from the version alone; the full view is only loaded
+  // when the client has no tag or a stale one.
+  public <V, T> ResponseEntity<T> serve(HttpHeaders request,
+                                        Supplier<Optional<EntityVersion>> version,
+                                        Supplier<Optional<V>> loader,
+                                        Function<V, EntityVersion> versionOf,
+                                        Function<V, T> mapper) {
+    var ifNoneMatch = request.getIfNoneMatch();
+    if (!ifNoneMatch.isEmpty()) {
+      var current = version.get();
+      if (current.isEmpty()) {
+        return ResponseEntity.notFound().build();
+      }
+      var etag = tag(current.get());
+      if (matchesWeakly(ifNoneMatch, etag)) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .build();
+      }
+    }
+    return loader.get()
+        .map(view -> ResponseEntity.ok()
+            .eTag(tag(versionOf.apply(view)))
+            .cacheControl(CacheControl.noCache())
+            .body(mapper.apply(view)))
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  // The entity keeps the version it was read with, so a write that slips in between the
+  // If-Match check and the flush still fails the optimistic lock.
+  public <E, T> ResponseEntity<T> update(HttpHeaders request, Optional<E> entity,
+                                         Function<E, EntityVersion> versionOf,
+                                         UnaryOperator<E> update,
+                                         Function<E, T> mapper) {
+    return entity
+        .map(current -> {
+          checkIfMatch(request.getIfMatch(), tag(versionOf.apply(current)));
+          var updated = update.apply(current);
+          return ResponseEntity.ok()
+              .eTag(tag(versionOf.apply(updated)))
+              .body(mapper.apply(updated));
+        })
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  // If-Match uses strong comparison, so weak tags never match.
+  private static void checkIfMatch(List<String> ifMatch, String etag) {
+    if (!ifMatch.isEmpty() && !ifMatch.contains("*") && !ifMatch.contains(etag)) {
+      throw new EntityVersionMismatchException(
+          "Entity tag %s does not match any of %s".formatted(etag, ifMatch));
+    }
+  }
+
+  private static boolean matchesWeakly(List<String> ifNoneMatch, String etag) {
+    return ifNoneMatch.stream()
+        .map(candidate -> candidate.startsWith("W/") ? candidate.substring(2) : candidate)
+        .anyMatch(candidate -> candidate.equals("*") || candidate.equals(etag));
+  }
+
+  private static String tag(EntityVersion version) {
+    return version.getAuthorVersion() == null
+        ? "\"%d\"".formatted(version.getVersion())
+        : "\"%d.%d\"".formatted(version.getVersion(), version.getAuthorVersion());
+  }
+}
@@ -0,0 +1,100 @@
+package com.example.tangerine.api.web;
+
+import com.example.tangerine.api.service.ImageContent;
+import com.example.tangerine.api.service.impl.StorageWorkers;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ImageResponses {
+  private final CacheControl immutable;
+  private final StorageWorkers workers;
+
+  public ImageResponses(@Value("${images.cache.max-age}") Duration maxAge,
+                        StorageWorkers workers) {
+    this.immutable = CacheControl.maxAge(maxAge).cachePublic().immutable();
+    this.workers = workers;
+  }
+
+  // The body is read on a storage worker, so no MVC or container thread waits on storage.
+  public CompletableFuture<ResponseEntity<byte[]>> serve(
+      HttpHeaders request, Supplier<String> tag,
+      Function<HttpRange, CompletableFuture<ImageContent>> loader) {
+    var etag = quote(tag.get());
+    if (matches(request.getIfNoneMatch(), etag)) {
+      return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(etag)
+          .cacheControl(immutable)
+          .build());
+    }
+    return loader.apply(requestedRange(request, etag))
+        .thenApplyAsync(this::toResponse, workers.getExecutor());
+  }
+
+  private ResponseEntity<byte[]> toResponse(ImageContent image) {
+    var range = image.getRange();
+    var response = ResponseEntity
+        .status(range == null ? HttpStatus.OK : HttpStatus.PARTIAL_CONTENT)
+        .contentType(MediaType.IMAGE_JPEG)
+        .eTag(quote(image.getTag()))
+        .cacheControl(image.isImmutable() ? immutable : CacheControl.noCache())
+        .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+    if (range == null) {
+      return response.body(read(image.getBody()));
+    }
+    return response
+        .header(HttpHeaders.CONTENT_RANGE, "bytes %d-%d/%d"
+            .formatted(range.getFirst(), range.getLast(), range.getTotalLength()))
+        .contentLength(range.getLength())
+        .body(read(image.getBody()));
+  }
+
+  // Only a single range is served partially; anything else gets the whole image.
+  private static HttpRange requestedRange(HttpHeaders request, String etag) {
+    if (request.getFirst(HttpHeaders.RANGE) == null) {
+      return null;
+    }
+    var ifRange = request.getFirst(HttpHeaders.IF_RANGE);
+    if (ifRange != null && !ifRange.equals(etag)) {
+      return null;
+    }
+    try {
+      var ranges = request.getRange();
+      return ranges.size() == 1 ? ranges.get(0) : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static byte[] read(Resource body) {
+    try {
+      return body.getContentAsByteArray();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static boolean matches(List<String> ifNoneMatch, String etag) {
+    return ifNoneMatch.stream()
+        .map(candidate -> candidate.startsWith("W/") ? candidate.substring(2) : candidate)
+        .anyMatch(candidate -> candidate.equals("*") || candidate.equals(etag));
+  }
+
+  private static String quote(String tag) {
+    return "\"%s\"".formatted(tag);
+  }
+}
@@ -0,0 +1,43 @@
+package com.example.tangerine.api.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@Component
+@RequiredArgsConstructor
+public class NdjsonWriter {
+
+  private final ObjectMapper objectMapper;
+  @Value("${export.flush-interval}")
+  private int flushInterval;
+
+  public <T> StreamingResponseBody stream(Consumer<Consumer<T>> source) {
+    var writer = objectMapper.writer();
+    return output -> {
+      var written = new AtomicLong();
+      try {
+        source.accept(row -> {
+          try {
+            output.write(writer.writeValueAsBytes(row));
+            output.write('\n');
+            if (written.incrementAndGet() % flushInterval == 0) {
+              output.flush();
+            }
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      output.flush();
+    };
+  }
+}
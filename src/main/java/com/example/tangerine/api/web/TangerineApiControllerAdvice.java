@@ -1,13 +1,22 @@
 package com.example.tangerine.api.web;
 
 import com.example.tangerine.api.exception.CommentNotFoundException;
+import com.example.tangerine.api.exception.EntityVersionMismatchException;
 import com.example.tangerine.api.exception.ImageNotFoundException;
+import com.example.tangerine.api.exception.ImageRangeNotSatisfiableException;
 import com.example.tangerine.api.exception.ImageUploadException;
 import com.example.tangerine.api.exception.IngredientNotFoundException;
+import com.example.tangerine.api.exception.InvalidCursorException;
+import com.example.tangerine.api.exception.InvalidImageSizeException;
+import com.example.tangerine.api.exception.InvalidIngredientMatchException;
 import com.example.tangerine.api.exception.InvalidPasswordException;
+import com.example.tangerine.api.exception.InvalidSortException;
 import com.example.tangerine.api.exception.MenuNotFoundException;
+import com.example.tangerine.api.exception.PresignedUploadsDisabledException;
+import com.example.tangerine.api.exception.RecipeImportException;
 import com.example.tangerine.api.exception.RecipeNotFoundException;
 import com.example.tangerine.api.exception.RoleNotFoundException;
+import com.example.tangerine.api.exception.UploadCapacityExceededException;
 import com.example.tangerine.api.exception.UserAlreadyExistsException;
 import com.example.tangerine.api.exception.UserNotFoundException;
 import com.example.tangerine.api.web.dto.ExceptionResponse;
@@ -15,10 +24,12 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -30,6 +41,11 @@ public class TangerineApiControllerAdvice {
 
   @ExceptionHandler({
       ImageUploadException.class,
+      InvalidCursorException.class,
+      InvalidImageSizeException.class,
+      InvalidIngredientMatchException.class,
+      InvalidSortException.class,
+      RecipeImportException.class,
       HttpMessageNotReadableException.class,
       UserAlreadyExistsException.class,
       MaxUploadSizeExceededException.class
@@ -52,13 +68,41 @@ public class TangerineApiControllerAdvice {
       CommentNotFoundException.class,
       IngredientNotFoundException.class,
       RoleNotFoundException.class,
-      ImageNotFoundException.class
+      ImageNotFoundException.class,
+      PresignedUploadsDisabledException.class
   })
   public ResponseEntity<ExceptionResponse> handleNotFound(RuntimeException exception) {
     return ResponseEntity.status(HttpStatus.NOT_FOUND)
         .body(exceptionResponse(exception.getMessage()));
   }
 
+  @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+  public ResponseEntity<ExceptionResponse> handleConflict(RuntimeException exception) {
+    return ResponseEntity.status(HttpStatus.CONFLICT)
+        .body(exceptionResponse(exception.getMessage()));
+  }
+
+  @ExceptionHandler(EntityVersionMismatchException.class)
+  public ResponseEntity<ExceptionResponse> handlePreconditionFailed(RuntimeException exception) {
+    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+        .body(exceptionResponse(exception.getMessage()));
+  }
+
+  @ExceptionHandler(ImageRangeNotSatisfiableException.class)
+  public ResponseEntity<ExceptionResponse> handleRangeNotSatisfiable(RuntimeException exception) {
+    return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+        .body(exceptionResponse(exception.getMessage()));
+  }
+
+  @ExceptionHandler({
+      UploadCapacityExceededException.class,
+      RejectedExecutionException.class
+  })
+  public ResponseEntity<ExceptionResponse> handleServiceUnavailable(RuntimeException exception) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .body(exceptionResponse(exception.getMessage()));
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<Map<String, List<String>>> handleValidationError(
       MethodArgumentNotValidException exception) {
@@ -1,12 +1,14 @@
 package com.example.tangerine.api.web.controller;
 
 import com.example.tangerine.api.service.CommentService;
+import com.example.tangerine.api.service.Cursor;
+import com.example.tangerine.api.web.NdjsonWriter;
 import com.example.tangerine.api.web.dto.ExceptionResponse;
+import com.example.tangerine.api.web.dto.PageDto;
 import com.example.tangerine.api.web.dto.comment.CommentDto;
 import com.example.tangerine.api.web.dto.comment.CommentUpdateDto;
 import com.example.tangerine.api.web.mapper.CommentMapper;
 import io.swagger.v3.oas.annotations.Operation;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,8 +16,6 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.security.Principal;
-import java.util.List;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -27,7 +27,9 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Comment Controller")
 @CrossOrigin
@@ -38,15 +40,28 @@ public class CommentController {
 
   private final CommentService commentService;
   private final CommentMapper commentMapper;
+  private final NdjsonWriter ndjsonWriter;
 
   @GetMapping
-  @Operation(summary = "Get all comments", responses = @ApiResponse(responseCode = "200",
+  @Operation(summary = "Get page of comments", responses = @ApiResponse(responseCode = "200",
       content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
-          array = @ArraySchema(schema = @Schema(implementation = CommentDto.class)))))
-  public ResponseEntity<List<CommentDto>> findAll() {
-    return commentService.findAll().stream()
-        .map(commentMapper::toPayload)
-        .collect(Collectors.collectingAndThen(Collectors.toList(), ResponseEntity::ok));
+          schema = @Schema(implementation = PageDto.class))))
+  public ResponseEntity<PageDto<CommentDto>> findAll(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "${pagination.default-page-size}") int limit) {
+    return ResponseEntity.ok(PageDto.of(commentService.findAll(Cursor.decode(cursor), limit)
+        .map(commentMapper::toPayload)));
+  }
+
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @Operation(summary = "Export all comments as NDJSON", responses = @ApiResponse(
+      responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+          schema = @Schema(implementation = CommentDto.class))))
+  public ResponseEntity<StreamingResponseBody> exportAll() {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(ndjsonWriter.<CommentDto>stream(sink -> commentService.exportAll(
+            comment -> sink.accept(commentMapper.toPayload(comment)))));
   }
 
   @GetMapping("/{id}")
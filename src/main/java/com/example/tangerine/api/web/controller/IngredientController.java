@@ -1,23 +1,27 @@
 package com.example.tangerine.api.web.controller;
 
+import com.example.tangerine.api.service.Cursor;
+import com.example.tangerine.api.service.ImageVariant;
 import com.example.tangerine.api.service.IngredientService;
+import com.example.tangerine.api.service.PresignedUpload;
+import com.example.tangerine.api.web.ImageResponses;
 import com.example.tangerine.api.web.dto.ExceptionResponse;
+import com.example.tangerine.api.web.dto.PageDto;
 import com.example.tangerine.api.web.dto.ingredient.IngredientCreationDto;
 import com.example.tangerine.api.web.dto.ingredient.IngredientDto;
 import com.example.tangerine.api.web.dto.ingredient.IngredientUpdateDto;
 import com.example.tangerine.api.web.mapper.IngredientMapper;
 import io.swagger.v3.oas.annotations.Operation;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -29,7 +33,9 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
@@ -43,15 +49,19 @@ public class IngredientController {
 
   private final IngredientService ingredientService;
   private final IngredientMapper ingredientMapper;
+  private final ImageResponses imageResponses;
+  @Value("${storage.presigned.enabled}")
+  private boolean presignedImages;
 
   @GetMapping
-  @Operation(summary = "Get all ingredients", responses = @ApiResponse(responseCode = "200",
+  @Operation(summary = "Get page of ingredients", responses = @ApiResponse(responseCode = "200",
       content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
-          array = @ArraySchema(schema = @Schema(implementation = IngredientDto.class)))))
-  public ResponseEntity<List<IngredientDto>> findAll() {
-    return ingredientService.findAll().stream()
-        .map(ingredientMapper::toPayload)
-        .collect(Collectors.collectingAndThen(Collectors.toList(), ResponseEntity::ok));
+          schema = @Schema(implementation = PageDto.class))))
+  public ResponseEntity<PageDto<IngredientDto>> findAll(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "${pagination.default-page-size}") int limit) {
+    return ResponseEntity.ok(PageDto.of(ingredientService.findAll(Cursor.decode(cursor), limit)
+        .map(ingredientMapper::toPayload)));
   }
 
   @GetMapping("/{id}")
@@ -69,14 +79,27 @@ public class IngredientController {
   @Operation(summary = "Get image of ingredient", responses = {
       @ApiResponse(responseCode = "200",
           content = @Content(mediaType = MediaType.IMAGE_JPEG_VALUE)),
+      @ApiResponse(responseCode = "206",
+          content = @Content(mediaType = MediaType.IMAGE_JPEG_VALUE)),
+      @ApiResponse(responseCode = "302", content = @Content),
+      @ApiResponse(responseCode = "304", content = @Content),
       @ApiResponse(responseCode = "404",
           content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
               schema = @Schema(implementation = ExceptionResponse.class)))
   })
-  public ResponseEntity<Resource> getImage(@PathVariable Long id) {
-    return ResponseEntity.ok()
-        .contentType(MediaType.IMAGE_JPEG)
-        .body(ingredientService.getImage(id));
+  public CompletableFuture<ResponseEntity<byte[]>> getImage(
+      @PathVariable Long id,
+      @RequestParam(required = false) String size,
+      @RequestHeader HttpHeaders headers) {
+    var variant = ImageVariant.fromKey(size);
+    if (presignedImages) {
+      return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FOUND)
+          .location(ingredientService.getImageUrl(id, variant).getUrl())
+          .build());
+    }
+    return imageResponses.serve(headers,
+        () -> ingredientService.getImageTag(id, variant),
+        range -> ingredientService.getImage(id, variant, range));
   }
 
   @PostMapping
@@ -112,10 +135,46 @@ public class IngredientController {
           content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
               schema = @Schema(implementation = ExceptionResponse.class)))
   })
-  public ResponseEntity<String> uploadImage(@PathVariable Long id,
-                                            @RequestPart MultipartFile file) {
-    var imageKey = ingredientService.addImage(id, file);
-    return new ResponseEntity<>(imageKey, HttpStatus.CREATED);
+  public CompletableFuture<ResponseEntity<String>> uploadImage(@PathVariable Long id,
+                                                               @RequestPart MultipartFile file) {
+    return ingredientService.addImage(id, file)
+        .thenApply(imageKey -> new ResponseEntity<>(imageKey, HttpStatus.CREATED));
+  }
+
+  @PostMapping("/{id}/image/upload-url")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  @SecurityRequirement(name = "bearer_token")
+  @Operation(summary = "Create presigned upload of ingredient image", responses = {
+      @ApiResponse(responseCode = "201",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = PresignedUpload.class))),
+      @ApiResponse(responseCode = "403", content = @Content),
+      @ApiResponse(responseCode = "404",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
+  })
+  public ResponseEntity<PresignedUpload> createImageUpload(@PathVariable Long id) {
+    return new ResponseEntity<>(ingredientService.createImageUpload(id), HttpStatus.CREATED);
+  }
+
+  @PostMapping("/{id}/image/confirm")
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  @SecurityRequirement(name = "bearer_token")
+  @Operation(summary = "Confirm presigned upload of ingredient image", responses = {
+      @ApiResponse(responseCode = "201",
+          content = @Content(mediaType = MediaType.TEXT_PLAIN_VALUE,
+              schema = @Schema(type = "string"))),
+      @ApiResponse(responseCode = "400",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class))),
+      @ApiResponse(responseCode = "403", content = @Content),
+      @ApiResponse(responseCode = "404",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
+  })
+  public ResponseEntity<String> confirmImage(@PathVariable Long id,
+                                             @RequestParam String imageKey) {
+    return new ResponseEntity<>(ingredientService.confirmImage(id, imageKey), HttpStatus.CREATED);
   }
 
   @PatchMapping("/{id}")
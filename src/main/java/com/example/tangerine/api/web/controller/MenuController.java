@@ -1,7 +1,16 @@
 package com.example.tangerine.api.web.controller;
 
+import com.example.tangerine.api.domain.Menu;
+import com.example.tangerine.api.repository.projection.EntityVersion;
+import com.example.tangerine.api.service.Cursor;
+import com.example.tangerine.api.service.ImageVariant;
 import com.example.tangerine.api.service.MenuService;
+import com.example.tangerine.api.service.PresignedUpload;
+import com.example.tangerine.api.web.EntityResponses;
+import com.example.tangerine.api.web.ImageResponses;
+import com.example.tangerine.api.web.NdjsonWriter;
 import com.example.tangerine.api.web.dto.ExceptionResponse;
+import com.example.tangerine.api.web.dto.PageDto;
 import com.example.tangerine.api.web.dto.menu.MenuCreationDto;
 import com.example.tangerine.api.web.dto.menu.MenuDto;
 import com.example.tangerine.api.web.dto.menu.MenuUpdateDto;
@@ -18,9 +27,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.security.Principal;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -32,10 +42,13 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Menu Controller")
 @CrossOrigin
@@ -46,16 +59,33 @@ public class MenuController {
 
   private final MenuService menuService;
   private final MenuMapper menuMapper;
+  private final NdjsonWriter ndjsonWriter;
   private final RecipeMapper recipeMapper;
+  private final ImageResponses imageResponses;
+  private final EntityResponses entityResponses;
+  @Value("${storage.presigned.enabled}")
+  private boolean presignedImages;
 
   @GetMapping
-  @Operation(summary = "Get all menus", responses = @ApiResponse(responseCode = "200",
+  @Operation(summary = "Get page of menus", responses = @ApiResponse(responseCode = "200",
       content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
-          array = @ArraySchema(schema = @Schema(implementation = MenuDto.class)))))
-  public ResponseEntity<List<MenuDto>> findAll() {
-    return menuService.findAll().stream()
-        .map(menuMapper::toPayload)
-        .collect(Collectors.collectingAndThen(Collectors.toList(), ResponseEntity::ok));
+          schema = @Schema(implementation = PageDto.class))))
+  public ResponseEntity<PageDto<MenuDto>> findAll(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "${pagination.default-page-size}") int limit) {
+    return ResponseEntity.ok(PageDto.of(menuService.findAll(Cursor.decode(cursor), limit)
+        .map(menuMapper::toPayload)));
+  }
+
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @Operation(summary = "Export all menus as NDJSON", responses = @ApiResponse(
+      responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+          schema = @Schema(implementation = MenuDto.class))))
+  public ResponseEntity<StreamingResponseBody> exportAll() {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(ndjsonWriter.<MenuDto>stream(sink -> menuService.exportAll(
+            menu -> sink.accept(menuMapper.toPayload(menu)))));
   }
 
   @GetMapping("/{id}")
@@ -63,10 +93,15 @@ public class MenuController {
       @ApiResponse(responseCode = "200",
           content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
               schema = @Schema(implementation = MenuDto.class))),
+      @ApiResponse(responseCode = "304", content = @Content),
       @ApiResponse(responseCode = "404", content = @Content)
   })
-  public ResponseEntity<MenuDto> findById(@PathVariable Long id) {
-    return ResponseEntity.of(menuService.findById(id).map(menuMapper::toPayload));
+  public ResponseEntity<MenuDto> findById(@PathVariable Long id,
+                                          @RequestHeader HttpHeaders headers) {
+    return entityResponses.serve(headers, () -> menuService.findVersionById(id),
+        () -> menuService.findViewById(id),
+        menu -> new EntityVersion(menu.getVersion(), menu.getAuthorVersion()),
+        menuMapper::toPayload);
   }
 
   @GetMapping("/{id}/recipes")
@@ -86,14 +121,27 @@ public class MenuController {
   @Operation(summary = "Get image of menu", responses = {
       @ApiResponse(responseCode = "200",
           content = @Content(mediaType = MediaType.IMAGE_JPEG_VALUE)),
+      @ApiResponse(responseCode = "206",
+          content = @Content(mediaType = MediaType.IMAGE_JPEG_VALUE)),
+      @ApiResponse(responseCode = "302", content = @Content),
+      @ApiResponse(responseCode = "304", content = @Content),
       @ApiResponse(responseCode = "404",
           content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
               schema = @Schema(implementation = ExceptionResponse.class)))
   })
-  public ResponseEntity<Resource> getImage(@PathVariable Long id) {
-    return ResponseEntity.ok()
-        .contentType(MediaType.IMAGE_JPEG)
-        .body(menuService.getImage(id));
+  public CompletableFuture<ResponseEntity<byte[]>> getImage(
+      @PathVariable Long id,
+      @RequestParam(required = false) String size,
+      @RequestHeader HttpHeaders headers) {
+    var variant = ImageVariant.fromKey(size);
+    if (presignedImages) {
+      return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FOUND)
+          .location(menuService.getImageUrl(id, variant).getUrl())
+          .build());
+    }
+    return imageResponses.serve(headers,
+        () -> menuService.getImageTag(id, variant),
+        range -> menuService.getImage(id, variant, range));
   }
 
   @PostMapping
@@ -131,11 +179,65 @@ public class MenuController {
           content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
               schema = @Schema(implementation = ExceptionResponse.class)))
   })
-  public ResponseEntity<String> uploadImage(@PathVariable Long id,
-                                            @RequestPart MultipartFile file,
-                                            Principal principal) {
-    var imageKey = menuService.addImage(id, file);
-    return new ResponseEntity<>(imageKey, HttpStatus.CREATED);
+  public CompletableFuture<ResponseEntity<String>> uploadImage(@PathVariable Long id,
+                                                               @RequestPart MultipartFile file,
+                                                               Principal principal) {
+    return menuService.addImage(id, file)
+        .thenApply(imageKey -> new ResponseEntity<>(imageKey, HttpStatus.CREATED));
+  }
+
+  @PostMapping("/{id}/image/upload-url")
+  @PreAuthorize("@menuChecker.isAuthor(#id, #principal.getName())")
+  @SecurityRequirement(name = "bearer_token")
+  @Operation(summary = "Create presigned upload of menu image", responses = {
+      @ApiResponse(responseCode = "201",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = PresignedUpload.class))),
+      @ApiResponse(responseCode = "403", content = @Content),
+      @ApiResponse(responseCode = "404",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
+  })
+  public ResponseEntity<PresignedUpload> createImageUpload(@PathVariable Long id,
+                                                           Principal principal) {
+    return new ResponseEntity<>(menuService.createImageUpload(id), HttpStatus.CREATED);
+  }
+
+  @PostMapping("/{id}/image/confirm")
+  @PreAuthorize("@menuChecker.isAuthor(#id, #principal.getName())")
+  @SecurityRequirement(name = "bearer_token")
+  @Operation(summary = "Confirm presigned upload of menu image", responses = {
+      @ApiResponse(responseCode = "201",
+          content = @Content(mediaType = MediaType.TEXT_PLAIN_VALUE,
+              schema = @Schema(type = "string"))),
+      @ApiResponse(responseCode = "400",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class))),
+      @ApiResponse(responseCode = "403", content = @Content),
+      @ApiResponse(responseCode = "404",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
+  })
+  public ResponseEntity<String> confirmImage(@PathVariable Long id,
+                                             @RequestParam String imageKey,
+                                             Principal principal) {
+    return new ResponseEntity<>(menuService.confirmImage(id, imageKey), HttpStatus.CREATED);
+  }
+
+  @PostMapping("/{id}/recipes/{recipeId}")
+  @PreAuthorize("@menuChecker.isAuthor(#id, #principal.getName())")
+  @SecurityRequirement(name = "bearer_token")
+  @Operation(summary = "Add recipe to menu", responses = {
+      @ApiResponse(responseCode = "204", content = @Content),
+      @ApiResponse(responseCode = "403", content = @Content),
+      @ApiResponse(responseCode = "404",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
+  })
+  public ResponseEntity<Void> addRecipe(@PathVariable Long id, @PathVariable Long recipeId,
+                                        Principal principal) {
+    menuService.addRecipe(id, recipeId);
+    return ResponseEntity.noContent().build();
   }
 
   @PatchMapping("/{id}")
@@ -149,14 +251,23 @@ public class MenuController {
           content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
               schema = @Schema(implementation = ExceptionResponse.class))),
       @ApiResponse(responseCode = "403", content = @Content),
-      @ApiResponse(responseCode = "404", content = @Content)
+      @ApiResponse(responseCode = "404", content = @Content),
+      @ApiResponse(responseCode = "409",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class))),
+      @ApiResponse(responseCode = "412",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
   })
   public ResponseEntity<MenuDto> update(@RequestBody @Valid MenuUpdateDto menuDto,
-                                        @PathVariable Long id, Principal principal) {
-    return ResponseEntity.of(menuService.findById(id)
-        .map(menu -> menuMapper.partialUpdate(menuDto, menu))
-        .map(menu -> menuService.update(menu, menuDto.getRecipeIndices()))
-        .map(menuMapper::toPayload));
+                                        @PathVariable Long id,
+                                        @RequestHeader HttpHeaders headers,
+                                        Principal principal) {
+    return entityResponses.update(headers, menuService.findById(id),
+        menu -> EntityVersion.of(menu.getVersion(), menu.getAuthor()),
+        menu -> menuService.update(menuMapper.partialUpdate(menuDto, menu),
+            menuDto.getRecipeIndices()),
+        menuMapper::toPayload);
   }
 
   @DeleteMapping("/{id}")
@@ -171,6 +282,22 @@ public class MenuController {
     return ResponseEntity.noContent().build();
   }
 
+  @DeleteMapping("/{id}/recipes/{recipeId}")
+  @PreAuthorize("@menuChecker.isAuthor(#id, #principal.getName())")
+  @SecurityRequirement(name = "bearer_token")
+  @Operation(summary = "Remove recipe from menu", responses = {
+      @ApiResponse(responseCode = "204", content = @Content),
+      @ApiResponse(responseCode = "403", content = @Content),
+      @ApiResponse(responseCode = "404",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
+  })
+  public ResponseEntity<Void> removeRecipe(@PathVariable Long id, @PathVariable Long recipeId,
+                                           Principal principal) {
+    menuService.removeRecipe(id, recipeId);
+    return ResponseEntity.noContent().build();
+  }
+
   @DeleteMapping("/{id}/image")
   @PreAuthorize("@menuChecker.isAuthor(#id, #principal.getName()) or hasRole('ROLE_ADMIN')")
   @SecurityRequirement(name = "bearer_token")
@@ -1,14 +1,32 @@
 package com.example.tangerine.api.web.controller;
 
+import com.example.tangerine.api.domain.Recipe;
+import com.example.tangerine.api.repository.projection.EntityVersion;
 import com.example.tangerine.api.service.CommentService;
+import com.example.tangerine.api.service.Cursor;
+import com.example.tangerine.api.service.IdCursor;
+import com.example.tangerine.api.service.ImageVariant;
+import com.example.tangerine.api.service.IngredientMatch;
+import com.example.tangerine.api.service.PresignedUpload;
+import com.example.tangerine.api.service.RecipeImportService;
 import com.example.tangerine.api.service.RecipeService;
+import com.example.tangerine.api.service.RecipeSort;
+import com.example.tangerine.api.service.RecipeSortCursor;
+import com.example.tangerine.api.service.SearchCursor;
+import com.example.tangerine.api.service.TimelineCursor;
+import com.example.tangerine.api.web.EntityResponses;
+import com.example.tangerine.api.web.ImageResponses;
+import com.example.tangerine.api.web.NdjsonWriter;
 import com.example.tangerine.api.web.dto.ExceptionResponse;
+import com.example.tangerine.api.web.dto.PageDto;
 import com.example.tangerine.api.web.dto.comment.CommentCreationDto;
 import com.example.tangerine.api.web.dto.comment.CommentDto;
 import com.example.tangerine.api.web.dto.ingredient.IngredientDto;
 import com.example.tangerine.api.web.dto.menu.MenuDto;
+import com.example.tangerine.api.web.dto.recipe.ImportReportDto;
 import com.example.tangerine.api.web.dto.recipe.RecipeCreationDto;
 import com.example.tangerine.api.web.dto.recipe.RecipeDto;
+import com.example.tangerine.api.web.dto.recipe.RecipeFilterDto;
 import com.example.tangerine.api.web.dto.recipe.RecipeUpdateDto;
 import com.example.tangerine.api.web.mapper.CommentMapper;
 import com.example.tangerine.api.web.mapper.IngredientMapper;
@@ -22,11 +40,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import java.security.Principal;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -38,10 +60,13 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Recipe Controller")
 @CrossOrigin
@@ -52,19 +77,96 @@ public class RecipeController {
 
   private final RecipeService recipeService;
   private final CommentService commentService;
+  private final RecipeImportService recipeImportService;
   private final RecipeMapper recipeMapper;
+  private final NdjsonWriter ndjsonWriter;
   private final MenuMapper menuMapper;
   private final CommentMapper commentMapper;
   private final IngredientMapper ingredientMapper;
+  private final ImageResponses imageResponses;
+  private final EntityResponses entityResponses;
+  @Value("${storage.presigned.enabled}")
+  private boolean presignedImages;
 
   @GetMapping
-  @Operation(summary = "Get all recipes", responses = @ApiResponse(responseCode = "200",
+  @Operation(summary = "Get page of recipes", responses = @ApiResponse(responseCode = "200",
       content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
-          array = @ArraySchema(schema = @Schema(implementation = RecipeDto.class)))))
-  public ResponseEntity<List<RecipeDto>> findAll() {
-    return recipeService.findAll().stream()
-        .map(recipeMapper::toPayload)
-        .collect(Collectors.collectingAndThen(Collectors.toList(), ResponseEntity::ok));
+          schema = @Schema(implementation = PageDto.class))))
+  public ResponseEntity<PageDto<RecipeDto>> findAll(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "${pagination.default-page-size}") int limit) {
+    return ResponseEntity.ok(PageDto.of(recipeService.findAll(Cursor.decode(cursor), limit)
+        .map(recipeMapper::toPayload)));
+  }
+
+  @GetMapping("/search")
+  @Operation(summary = "Search recipes by name and description", responses = {
+      @ApiResponse(responseCode = "200",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = PageDto.class))),
+      @ApiResponse(responseCode = "400",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
+  })
+  public ResponseEntity<PageDto<RecipeDto>> search(
+      @RequestParam String q,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "${pagination.default-page-size}") int limit) {
+    return ResponseEntity.ok(PageDto.of(recipeService.search(q, SearchCursor.decode(cursor), limit)
+        .map(recipeMapper::toPayload)));
+  }
+
+  @GetMapping("/filter")
+  @Operation(summary = "Filter recipes and sort by created, cost or duration; recipes without "
+      + "a value for the sort field are left out", responses = {
+          @ApiResponse(responseCode = "200",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  schema = @Schema(implementation = PageDto.class))),
+          @ApiResponse(responseCode = "400",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  schema = @Schema(implementation = ExceptionResponse.class)))
+      })
+  public ResponseEntity<PageDto<RecipeDto>> filter(
+      @ParameterObject @Valid RecipeFilterDto filterDto,
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String direction,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "${pagination.default-page-size}") int limit) {
+    var recipeSort = RecipeSort.fromKey(sort);
+    return ResponseEntity.ok(PageDto.of(recipeService.filter(recipeMapper.toFilter(filterDto),
+            recipeSort, recipeSort.direction(direction), RecipeSortCursor.decode(cursor), limit)
+        .map(recipeMapper::toPayload)));
+  }
+
+  @GetMapping("/by-ingredients")
+  @Operation(summary = "Find recipes by ingredients with match mode all, any or subset",
+      responses = {
+          @ApiResponse(responseCode = "200",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  schema = @Schema(implementation = PageDto.class))),
+          @ApiResponse(responseCode = "400",
+              content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  schema = @Schema(implementation = ExceptionResponse.class)))
+      })
+  public ResponseEntity<PageDto<RecipeDto>> findByIngredients(
+      @RequestParam Set<Long> ids,
+      @RequestParam(required = false) String mode,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "${pagination.default-page-size}") int limit) {
+    return ResponseEntity.ok(PageDto.of(recipeService.findByIngredients(ids,
+            IngredientMatch.fromKey(mode), IdCursor.decode(cursor), limit)
+        .map(recipeMapper::toPayload)));
+  }
+
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @Operation(summary = "Export all recipes as NDJSON", responses = @ApiResponse(
+      responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+          schema = @Schema(implementation = RecipeDto.class))))
+  public ResponseEntity<StreamingResponseBody> exportAll() {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(ndjsonWriter.<RecipeDto>stream(sink -> recipeService.exportAll(
+            recipe -> sink.accept(recipeMapper.toPayload(recipe)))));
   }
 
   @GetMapping("/{id}")
@@ -72,10 +174,15 @@ public class RecipeController {
       @ApiResponse(responseCode = "200",
           content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
               schema = @Schema(implementation = RecipeDto.class))),
+      @ApiResponse(responseCode = "304", content = @Content),
       @ApiResponse(responseCode = "404", content = @Content)
   })
-  public ResponseEntity<RecipeDto> findById(@PathVariable Long id) {
-    return ResponseEntity.of(recipeService.findById(id).map(recipeMapper::toPayload));
+  public ResponseEntity<RecipeDto> findById(@PathVariable Long id,
+                                            @RequestHeader HttpHeaders headers) {
+    return entityResponses.serve(headers, () -> recipeService.findVersionById(id),
+        () -> recipeService.findViewById(id),
+        recipe -> new EntityVersion(recipe.getVersion(), recipe.getAuthorVersion()),
+        recipeMapper::toPayload);
   }
 
   @GetMapping("/{id}/menus")
@@ -92,16 +199,24 @@ public class RecipeController {
   }
 
   @GetMapping("/{id}/comments")
-  @Operation(summary = "Get comments of recipe", responses = {
+  @Operation(summary = "Get page of comments of recipe, oldest first", responses = {
       @ApiResponse(responseCode = "200",
           content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
-              array = @ArraySchema(schema = @Schema(implementation = CommentDto.class)))),
-      @ApiResponse(responseCode = "404", content = @Content)
+              schema = @Schema(implementation = PageDto.class))),
+      @ApiResponse(responseCode = "400",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class))),
+      @ApiResponse(responseCode = "404",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
   })
-  public ResponseEntity<List<CommentDto>> getComments(@PathVariable Long id) {
-    return ResponseEntity.of(recipeService.getComments(id)
-        .map(menus -> menus.stream()
-            .map(commentMapper::toPayload).toList()));
+  public ResponseEntity<PageDto<CommentDto>> getComments(
+      @PathVariable Long id,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "${pagination.default-page-size}") int limit) {
+    return ResponseEntity.ok(PageDto.of(
+        commentService.findByRecipe(id, TimelineCursor.decode(cursor), limit)
+            .map(commentMapper::toPayload)));
   }
 
   @GetMapping("/{id}/ingredients")
@@ -121,14 +236,27 @@ public class RecipeController {
   @Operation(summary = "Get image of recipe", responses = {
       @ApiResponse(responseCode = "200",
           content = @Content(mediaType = MediaType.IMAGE_JPEG_VALUE)),
+      @ApiResponse(responseCode = "206",
+          content = @Content(mediaType = MediaType.IMAGE_JPEG_VALUE)),
+      @ApiResponse(responseCode = "302", content = @Content),
+      @ApiResponse(responseCode = "304", content = @Content),
       @ApiResponse(responseCode = "404",
           content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
               schema = @Schema(implementation = ExceptionResponse.class)))
   })
-  public ResponseEntity<Resource> getImage(@PathVariable Long id) {
-    return ResponseEntity.ok()
-        .contentType(MediaType.IMAGE_JPEG)
-        .body(recipeService.getImage(id));
+  public CompletableFuture<ResponseEntity<byte[]>> getImage(
+      @PathVariable Long id,
+      @RequestParam(required = false) String size,
+      @RequestHeader HttpHeaders headers) {
+    var variant = ImageVariant.fromKey(size);
+    if (presignedImages) {
+      return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FOUND)
+          .location(recipeService.getImageUrl(id, variant).getUrl())
+          .build());
+    }
+    return imageResponses.serve(headers,
+        () -> recipeService.getImageTag(id, variant),
+        range -> recipeService.getImage(id, variant, range));
   }
 
   @PostMapping
@@ -151,6 +279,23 @@ public class RecipeController {
     return new ResponseEntity<>(recipeMapper.toPayload(created), HttpStatus.CREATED);
   }
 
+  @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  @PreAuthorize("hasRole('ROLE_ADMIN')")
+  @SecurityRequirement(name = "bearer_token")
+  @Operation(summary = "Import recipes from NDJSON stream", responses = {
+      @ApiResponse(responseCode = "200",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ImportReportDto.class))),
+      @ApiResponse(responseCode = "400",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class))),
+      @ApiResponse(responseCode = "403", content = @Content)
+  })
+  public ResponseEntity<ImportReportDto> importRecipes(InputStream body, Principal principal) {
+    return ResponseEntity.ok(
+        recipeMapper.toPayload(recipeImportService.importRecipes(body, principal.getName())));
+  }
+
   @PostMapping("/{id}/comments")
   @SecurityRequirement(name = "bearer_token")
   @Operation(summary = "Add comment to recipe", responses = {
@@ -187,11 +332,66 @@ public class RecipeController {
           content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
               schema = @Schema(implementation = ExceptionResponse.class)))
   })
-  public ResponseEntity<String> uploadImage(@PathVariable Long id,
-                                            @RequestPart MultipartFile file,
+  public CompletableFuture<ResponseEntity<String>> uploadImage(@PathVariable Long id,
+                                                               @RequestPart MultipartFile file,
+                                                               Principal principal) {
+    return recipeService.addImage(id, file)
+        .thenApply(imageKey -> new ResponseEntity<>(imageKey, HttpStatus.CREATED));
+  }
+
+  @PostMapping("/{id}/image/upload-url")
+  @PreAuthorize("@recipeChecker.isAuthor(#id, #principal.getName())")
+  @SecurityRequirement(name = "bearer_token")
+  @Operation(summary = "Create presigned upload of recipe image", responses = {
+      @ApiResponse(responseCode = "201",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = PresignedUpload.class))),
+      @ApiResponse(responseCode = "403", content = @Content),
+      @ApiResponse(responseCode = "404",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
+  })
+  public ResponseEntity<PresignedUpload> createImageUpload(@PathVariable Long id,
+                                                           Principal principal) {
+    return new ResponseEntity<>(recipeService.createImageUpload(id), HttpStatus.CREATED);
+  }
+
+  @PostMapping("/{id}/image/confirm")
+  @PreAuthorize("@recipeChecker.isAuthor(#id, #principal.getName())")
+  @SecurityRequirement(name = "bearer_token")
+  @Operation(summary = "Confirm presigned upload of recipe image", responses = {
+      @ApiResponse(responseCode = "201",
+          content = @Content(mediaType = MediaType.TEXT_PLAIN_VALUE,
+              schema = @Schema(type = "string"))),
+      @ApiResponse(responseCode = "400",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class))),
+      @ApiResponse(responseCode = "403", content = @Content),
+      @ApiResponse(responseCode = "404",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
+  })
+  public ResponseEntity<String> confirmImage(@PathVariable Long id,
+                                             @RequestParam String imageKey,
+                                             Principal principal) {
+    return new ResponseEntity<>(recipeService.confirmImage(id, imageKey), HttpStatus.CREATED);
+  }
+
+  @PostMapping("/{id}/ingredients/{ingredientId}")
+  @PreAuthorize("@recipeChecker.isAuthor(#id, #principal.getName())")
+  @SecurityRequirement(name = "bearer_token")
+  @Operation(summary = "Add ingredient to recipe", responses = {
+      @ApiResponse(responseCode = "204", content = @Content),
+      @ApiResponse(responseCode = "403", content = @Content),
+      @ApiResponse(responseCode = "404",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
+  })
+  public ResponseEntity<Void> addIngredient(@PathVariable Long id,
+                                            @PathVariable Long ingredientId,
                                             Principal principal) {
-    var imageKey = recipeService.addImage(id, file);
-    return new ResponseEntity<>(imageKey, HttpStatus.CREATED);
+    recipeService.addIngredient(id, ingredientId);
+    return ResponseEntity.noContent().build();
   }
 
   @PatchMapping("/{id}")
@@ -205,14 +405,23 @@ public class RecipeController {
           content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
               schema = @Schema(implementation = ExceptionResponse.class))),
       @ApiResponse(responseCode = "403", content = @Content),
-      @ApiResponse(responseCode = "404", content = @Content)
+      @ApiResponse(responseCode = "404", content = @Content),
+      @ApiResponse(responseCode = "409",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class))),
+      @ApiResponse(responseCode = "412",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
   })
   public ResponseEntity<RecipeDto> update(@RequestBody @Valid RecipeUpdateDto recipeDto,
-                                          @PathVariable Long id, Principal principal) {
-    return ResponseEntity.of(recipeService.findById(id)
-        .map(recipe -> recipeMapper.partialUpdate(recipeDto, recipe))
-        .map(recipe -> recipeService.update(recipe, recipeDto.getIngredientIndices()))
-        .map(recipeMapper::toPayload));
+                                          @PathVariable Long id,
+                                          @RequestHeader HttpHeaders headers,
+                                          Principal principal) {
+    return entityResponses.update(headers, recipeService.findById(id),
+        recipe -> EntityVersion.of(recipe.getVersion(), recipe.getAuthor()),
+        recipe -> recipeService.update(recipeMapper.partialUpdate(recipeDto, recipe),
+            recipeDto.getIngredientIndices()),
+        recipeMapper::toPayload);
   }
 
   @DeleteMapping("/{id}")
@@ -227,6 +436,23 @@ public class RecipeController {
     return ResponseEntity.noContent().build();
   }
 
+  @DeleteMapping("/{id}/ingredients/{ingredientId}")
+  @PreAuthorize("@recipeChecker.isAuthor(#id, #principal.getName())")
+  @SecurityRequirement(name = "bearer_token")
+  @Operation(summary = "Remove ingredient from recipe", responses = {
+      @ApiResponse(responseCode = "204", content = @Content),
+      @ApiResponse(responseCode = "403", content = @Content),
+      @ApiResponse(responseCode = "404",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
+  })
+  public ResponseEntity<Void> removeIngredient(@PathVariable Long id,
+                                               @PathVariable Long ingredientId,
+                                               Principal principal) {
+    recipeService.removeIngredient(id, ingredientId);
+    return ResponseEntity.noContent().build();
+  }
+
   @DeleteMapping("/{id}/image")
   @PreAuthorize("@recipeChecker.isAuthor(#id, #principal.getName()) or hasRole('ROLE_ADMIN')")
   @SecurityRequirement(name = "bearer_token")
@@ -1,10 +1,19 @@
 package com.example.tangerine.api.web.controller;
 
+import com.example.tangerine.api.domain.User;
+import com.example.tangerine.api.repository.projection.EntityVersion;
+import com.example.tangerine.api.service.Cursor;
+import com.example.tangerine.api.service.ImageVariant;
+import com.example.tangerine.api.service.PresignedUpload;
 import com.example.tangerine.api.service.UserService;
+import com.example.tangerine.api.web.EntityResponses;
+import com.example.tangerine.api.web.ImageResponses;
 import com.example.tangerine.api.web.dto.ExceptionResponse;
+import com.example.tangerine.api.web.dto.PageDto;
 import com.example.tangerine.api.web.dto.menu.MenuDto;
 import com.example.tangerine.api.web.dto.recipe.RecipeDto;
 import com.example.tangerine.api.web.dto.user.UserDto;
+import com.example.tangerine.api.web.dto.user.UserProfileDto;
 import com.example.tangerine.api.web.dto.user.UserUpdateDto;
 import com.example.tangerine.api.web.mapper.MenuMapper;
 import com.example.tangerine.api.web.mapper.RecipeMapper;
@@ -19,9 +28,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.security.Principal;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -33,7 +43,9 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
@@ -48,15 +60,20 @@ public class UserController {
   private final UserMapper userMapper;
   private final RecipeMapper recipeMapper;
   private final MenuMapper menuMapper;
+  private final ImageResponses imageResponses;
+  private final EntityResponses entityResponses;
+  @Value("${storage.presigned.enabled}")
+  private boolean presignedImages;
 
   @GetMapping
-  @Operation(summary = "Get all users", responses = @ApiResponse(responseCode = "200",
+  @Operation(summary = "Get page of users", responses = @ApiResponse(responseCode = "200",
       content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
-          array = @ArraySchema(schema = @Schema(implementation = UserDto.class)))))
-  public ResponseEntity<List<UserDto>> findAll() {
-    return userService.findAll().stream()
-        .map(userMapper::toPayload)
-        .collect(Collectors.collectingAndThen(Collectors.toList(), ResponseEntity::ok));
+          schema = @Schema(implementation = PageDto.class))))
+  public ResponseEntity<PageDto<UserDto>> findAll(
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "${pagination.default-page-size}") int limit) {
+    return ResponseEntity.ok(PageDto.of(userService.findAll(Cursor.decode(cursor), limit)
+        .map(userMapper::toPayload)));
   }
 
   @GetMapping("/{id}")
@@ -64,10 +81,29 @@ public class UserController {
       @ApiResponse(responseCode = "200",
           content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
               schema = @Schema(implementation = UserDto.class))),
+      @ApiResponse(responseCode = "304", content = @Content),
       @ApiResponse(responseCode = "404", content = @Content)
   })
-  public ResponseEntity<UserDto> findById(@PathVariable Long id) {
-    return ResponseEntity.of(userService.findById(id).map(userMapper::toPayload));
+  public ResponseEntity<UserDto> findById(@PathVariable Long id,
+                                          @RequestHeader HttpHeaders headers) {
+    return entityResponses.serve(headers, () -> userService.findVersionById(id),
+        () -> userService.findById(id), user -> EntityVersion.of(user.getVersion()),
+        userMapper::toPayload);
+  }
+
+  @GetMapping("/{id}/profile")
+  @Operation(summary = "Get user with the latest recipes and menus", responses = {
+      @ApiResponse(responseCode = "200",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = UserProfileDto.class))),
+      @ApiResponse(responseCode = "404", content = @Content)
+  })
+  public ResponseEntity<UserProfileDto> getProfile(
+      @PathVariable Long id,
+      @RequestParam(defaultValue = "${profile.section.default-size}") int recipeLimit,
+      @RequestParam(defaultValue = "${profile.section.default-size}") int menuLimit) {
+    return ResponseEntity.of(userService.getProfile(id, recipeLimit, menuLimit)
+        .map(userMapper::toPayload));
   }
 
   @GetMapping("/{id}/recipes")
@@ -100,14 +136,27 @@ public class UserController {
   @Operation(summary = "Get image of user", responses = {
       @ApiResponse(responseCode = "200",
           content = @Content(mediaType = MediaType.IMAGE_JPEG_VALUE)),
+      @ApiResponse(responseCode = "206",
+          content = @Content(mediaType = MediaType.IMAGE_JPEG_VALUE)),
+      @ApiResponse(responseCode = "302", content = @Content),
+      @ApiResponse(responseCode = "304", content = @Content),
       @ApiResponse(responseCode = "404",
           content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
               schema = @Schema(implementation = ExceptionResponse.class)))
   })
-  public ResponseEntity<Resource> getImage(@PathVariable Long id) {
-    return ResponseEntity.ok()
-        .contentType(MediaType.IMAGE_JPEG)
-        .body(userService.getImage(id));
+  public CompletableFuture<ResponseEntity<byte[]>> getImage(
+      @PathVariable Long id,
+      @RequestParam(required = false) String size,
+      @RequestHeader HttpHeaders headers) {
+    var variant = ImageVariant.fromKey(size);
+    if (presignedImages) {
+      return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.FOUND)
+          .location(userService.getImageUrl(id, variant).getUrl())
+          .build());
+    }
+    return imageResponses.serve(headers,
+        () -> userService.getImageTag(id, variant),
+        range -> userService.getImage(id, variant, range));
   }
 
   @PostMapping("/{id}/image")
@@ -125,11 +174,49 @@ public class UserController {
           content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
               schema = @Schema(implementation = ExceptionResponse.class)))
   })
-  public ResponseEntity<String> uploadImage(@PathVariable Long id,
-                                            @RequestPart MultipartFile file,
-                                            Principal principal) {
-    var imageKey = userService.addImage(id, file);
-    return new ResponseEntity<>(imageKey, HttpStatus.CREATED);
+  public CompletableFuture<ResponseEntity<String>> uploadImage(@PathVariable Long id,
+                                                               @RequestPart MultipartFile file,
+                                                               Principal principal) {
+    return userService.addImage(id, file)
+        .thenApply(imageKey -> new ResponseEntity<>(imageKey, HttpStatus.CREATED));
+  }
+
+  @PostMapping("/{id}/image/upload-url")
+  @PreAuthorize("@userChecker.check(#id, #principal.getName())")
+  @SecurityRequirement(name = "bearer_token")
+  @Operation(summary = "Create presigned upload of user image", responses = {
+      @ApiResponse(responseCode = "201",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = PresignedUpload.class))),
+      @ApiResponse(responseCode = "403", content = @Content),
+      @ApiResponse(responseCode = "404",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
+  })
+  public ResponseEntity<PresignedUpload> createImageUpload(@PathVariable Long id,
+                                                           Principal principal) {
+    return new ResponseEntity<>(userService.createImageUpload(id), HttpStatus.CREATED);
+  }
+
+  @PostMapping("/{id}/image/confirm")
+  @PreAuthorize("@userChecker.check(#id, #principal.getName())")
+  @SecurityRequirement(name = "bearer_token")
+  @Operation(summary = "Confirm presigned upload of user image", responses = {
+      @ApiResponse(responseCode = "201",
+          content = @Content(mediaType = MediaType.TEXT_PLAIN_VALUE,
+              schema = @Schema(type = "string"))),
+      @ApiResponse(responseCode = "400",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class))),
+      @ApiResponse(responseCode = "403", content = @Content),
+      @ApiResponse(responseCode = "404",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
+  })
+  public ResponseEntity<String> confirmImage(@PathVariable Long id,
+                                             @RequestParam String imageKey,
+                                             Principal principal) {
+    return new ResponseEntity<>(userService.confirmImage(id, imageKey), HttpStatus.CREATED);
   }
 
   @PatchMapping("/{id}")
@@ -143,14 +230,23 @@ public class UserController {
           content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
               schema = @Schema(implementation = ExceptionResponse.class))),
       @ApiResponse(responseCode = "403", content = @Content),
-      @ApiResponse(responseCode = "404", content = @Content)
+      @ApiResponse(responseCode = "404", content = @Content),
+      @ApiResponse(responseCode = "409",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class))),
+      @ApiResponse(responseCode = "412",
+          content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+              schema = @Schema(implementation = ExceptionResponse.class)))
   })
   public ResponseEntity<UserDto> update(@RequestBody @Valid UserUpdateDto userDto,
-                                        @PathVariable Long id, Principal principal) {
-    return ResponseEntity.of(userService.findById(id)
-        .map(user -> userMapper.partialUpdate(userDto, user))
-        .map(user -> userService.update(user, userDto.getNewPassword()))
-        .map(userMapper::toPayload));
+                                        @PathVariable Long id,
+                                        @RequestHeader HttpHeaders headers,
+                                        Principal principal) {
+    return entityResponses.update(headers, userService.findById(id),
+        user -> EntityVersion.of(user.getVersion()),
+        user -> userService.update(userMapper.partialUpdate(userDto, user),
+            userDto.getNewPassword()),
+        userMapper::toPayload);
   }
 
   @DeleteMapping("/{id}")
@@ -0,0 +1,23 @@
+package com.example.tangerine.api.web.dto;
+
+import com.example.tangerine.api.service.CursorPage;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PageDto<T> {
+  private List<T> content;
+  private String next;
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private String previous;
+
+  public static <T> PageDto<T> of(CursorPage<T> page) {
+    var next = page.getNext();
+    var previous = page.getPrevious();
+    return new PageDto<>(page.getContent(), next == null ? null : next.encode(),
+        previous == null ? null : previous.encode());
+  }
+}
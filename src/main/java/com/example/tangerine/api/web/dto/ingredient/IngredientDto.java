@@ -8,4 +8,5 @@ public class IngredientDto {
   private String name;
   private Long createdAt;
   private String imageKey;
+  private long recipeCount;
 }
@@ -11,5 +11,5 @@ public class MenuCreationDto {
   private String name;
 
   @NotNull
-  private List<Long> recipeIndices;
+  private List<@NotNull(message = "Must not contain null") Long> recipeIndices;
 }
@@ -10,4 +10,5 @@ public class MenuDto {
   private String imageKey;
   private Long authorId;
   private String authorUsername;
+  private long recipeCount;
 }
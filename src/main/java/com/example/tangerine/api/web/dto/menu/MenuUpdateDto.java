@@ -1,5 +1,6 @@
 package com.example.tangerine.api.web.dto.menu;
 
+import jakarta.validation.constraints.NotNull;
 import java.util.List;
 import lombok.Data;
 
@@ -7,5 +8,5 @@ import lombok.Data;
 public class MenuUpdateDto {
   private String name;
 
-  private List<Long> recipeIndices;
+  private List<@NotNull(message = "Must not contain null") Long> recipeIndices;
 }
@@ -0,0 +1,17 @@
+package com.example.tangerine.api.web.dto.recipe;
+
+import java.util.List;
+import lombok.Value;
+
+@Value
+public class ImportReportDto {
+  int imported;
+  int failed;
+  List<LineError> errors;
+
+  @Value
+  public static class LineError {
+    long line;
+    String message;
+  }
+}
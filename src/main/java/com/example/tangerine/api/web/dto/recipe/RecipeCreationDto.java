@@ -24,5 +24,5 @@ public class RecipeCreationDto {
   private Complexity complexity;
 
   @NotNull
-  private List<Long> ingredientIndices;
+  private List<@NotNull(message = "Must not contain null") Long> ingredientIndices;
 }
@@ -15,4 +15,7 @@ public class RecipeDto {
   private String imageKey;
   private Long authorId;
   private String authorUsername;
+  private long commentCount;
+  private long ingredientCount;
+  private long menuCount;
 }
@@ -0,0 +1,24 @@
+package com.example.tangerine.api.web.dto.recipe;
+
+import com.example.tangerine.api.domain.Complexity;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+@Data
+public class RecipeFilterDto {
+  private Complexity complexity;
+
+  @PositiveOrZero(message = "Must not be negative")
+  private Long minDuration;
+
+  @PositiveOrZero(message = "Must not be negative")
+  private Long maxDuration;
+
+  @PositiveOrZero(message = "Must not be negative")
+  private Long minCost;
+
+  @PositiveOrZero(message = "Must not be negative")
+  private Long maxCost;
+
+  private Long authorId;
+}
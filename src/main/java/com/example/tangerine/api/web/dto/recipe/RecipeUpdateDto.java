@@ -1,6 +1,7 @@
 package com.example.tangerine.api.web.dto.recipe;
 
 import com.example.tangerine.api.domain.Complexity;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import java.util.List;
 import lombok.Data;
@@ -19,5 +20,5 @@ public class RecipeUpdateDto {
 
   private Complexity complexity;
 
-  private List<Long> ingredientIndices;
+  private List<@NotNull(message = "Must not contain null") Long> ingredientIndices;
 }
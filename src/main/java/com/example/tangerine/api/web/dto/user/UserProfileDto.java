@@ -0,0 +1,15 @@
+package com.example.tangerine.api.web.dto.user;
+
+import com.example.tangerine.api.web.dto.menu.MenuDto;
+import com.example.tangerine.api.web.dto.recipe.RecipeDto;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class UserProfileDto {
+  private UserDto user;
+  private List<RecipeDto> recipes;
+  private boolean moreRecipes;
+  private List<MenuDto> menus;
+  private boolean moreMenus;
+}
@@ -1,6 +1,7 @@
 package com.example.tangerine.api.web.mapper;
 
 import com.example.tangerine.api.domain.Comment;
+import com.example.tangerine.api.repository.projection.CommentView;
 import com.example.tangerine.api.web.dto.comment.CommentCreationDto;
 import com.example.tangerine.api.web.dto.comment.CommentDto;
 import com.example.tangerine.api.web.dto.comment.CommentUpdateDto;
@@ -17,6 +18,9 @@ public interface CommentMapper {
   @Mapping(target = "createdAt", expression = "java(comment.getCreatedAt().getEpochSecond())")
   CommentDto toPayload(Comment comment);
 
+  @Mapping(target = "createdAt", expression = "java(comment.getCreatedAt().getEpochSecond())")
+  CommentDto toPayload(CommentView comment);
+
   Comment toEntity(CommentCreationDto commentDto);
 
   @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -1,6 +1,7 @@
 package com.example.tangerine.api.web.mapper;
 
 import com.example.tangerine.api.domain.Menu;
+import com.example.tangerine.api.repository.projection.MenuView;
 import com.example.tangerine.api.web.dto.menu.MenuCreationDto;
 import com.example.tangerine.api.web.dto.menu.MenuDto;
 import com.example.tangerine.api.web.dto.menu.MenuUpdateDto;
@@ -17,6 +18,9 @@ public interface MenuMapper {
   @Mapping(target = "createdAt", expression = "java(menu.getCreatedAt().getEpochSecond())")
   MenuDto toPayload(Menu menu);
 
+  @Mapping(target = "createdAt", expression = "java(menu.getCreatedAt().getEpochSecond())")
+  MenuDto toPayload(MenuView menu);
+
   Menu toEntity(MenuCreationDto menuDto);
 
   @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
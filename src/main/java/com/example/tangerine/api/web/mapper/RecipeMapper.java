@@ -1,8 +1,13 @@
 package com.example.tangerine.api.web.mapper;
 
 import com.example.tangerine.api.domain.Recipe;
+import com.example.tangerine.api.repository.projection.RecipeView;
+import com.example.tangerine.api.service.ImportReport;
+import com.example.tangerine.api.service.RecipeFilter;
+import com.example.tangerine.api.web.dto.recipe.ImportReportDto;
 import com.example.tangerine.api.web.dto.recipe.RecipeCreationDto;
 import com.example.tangerine.api.web.dto.recipe.RecipeDto;
+import com.example.tangerine.api.web.dto.recipe.RecipeFilterDto;
 import com.example.tangerine.api.web.dto.recipe.RecipeUpdateDto;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
@@ -17,8 +22,15 @@ public interface RecipeMapper {
   @Mapping(target = "createdAt", expression = "java(recipe.getCreatedAt().getEpochSecond())")
   RecipeDto toPayload(Recipe recipe);
 
+  @Mapping(target = "createdAt", expression = "java(recipe.getCreatedAt().getEpochSecond())")
+  RecipeDto toPayload(RecipeView recipe);
+
   Recipe toEntity(RecipeCreationDto recipeDto);
 
+  RecipeFilter toFilter(RecipeFilterDto filterDto);
+
+  ImportReportDto toPayload(ImportReport report);
+
   @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
   Recipe partialUpdate(RecipeUpdateDto recipeDto, @MappingTarget Recipe recipe);
 }
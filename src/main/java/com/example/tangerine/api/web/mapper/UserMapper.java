@@ -1,8 +1,11 @@
 package com.example.tangerine.api.web.mapper;
 
 import com.example.tangerine.api.domain.User;
+import com.example.tangerine.api.repository.projection.UserView;
+import com.example.tangerine.api.service.UserProfile;
 import com.example.tangerine.api.web.dto.user.UserCreationDto;
 import com.example.tangerine.api.web.dto.user.UserDto;
+import com.example.tangerine.api.web.dto.user.UserProfileDto;
 import com.example.tangerine.api.web.dto.user.UserUpdateDto;
 import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
@@ -11,11 +14,16 @@ import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 
 
-@Mapper
+@Mapper(uses = {RecipeMapper.class, MenuMapper.class})
 public interface UserMapper {
   @Mapping(target = "createdAt", expression = "java(user.getCreatedAt().getEpochSecond())")
   UserDto toPayload(User user);
 
+  @Mapping(target = "createdAt", expression = "java(user.getCreatedAt().getEpochSecond())")
+  UserDto toPayload(UserView user);
+
+  UserProfileDto toPayload(UserProfile profile);
+
   User toEntity(UserCreationDto userDto);
 
   @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -1,7 +1,17 @@
 INSERT INTO roles (id, name) VALUES (1, 'ROLE_USER'), (2, 'ROLE_ADMIN') ON CONFLICT (id) DO NOTHING;
 
-INSERT INTO users (username, password, created_at)
-VALUES ('admin', '$2a$12$KJ2OnYf.tUXS8DthukuNlOfJ54OVNzAuB3kfCzLodTsbWDJlHhUDy', to_timestamp(0))
+INSERT INTO users (id, username, password, created_at)
+VALUES (nextval('users_seq'), 'admin', '$2a$12$KJ2OnYf.tUXS8DthukuNlOfJ54OVNzAuB3kfCzLodTsbWDJlHhUDy', to_timestamp(0))
 ON CONFLICT (username) DO NOTHING;
 
-INSERT INTO users_roles (user_id, role_id) VALUES (1, 1), (1, 2) ON CONFLICT (user_id, role_id) DO NOTHING;
\ No newline at end of file
+INSERT INTO users_roles (user_id, role_id)
+SELECT u.id, r.id FROM users u, roles r
+WHERE u.username = 'admin' AND r.name IN ('ROLE_USER', 'ROLE_ADMIN')
+ON CONFLICT (user_id, role_id) DO NOTHING;
+
+SELECT setval('roles_seq', GREATEST((SELECT last_value FROM roles_seq), (SELECT COALESCE(MAX(id), 0) FROM roles)));
+SELECT setval('users_seq', GREATEST((SELECT last_value FROM users_seq), (SELECT COALESCE(MAX(id), 0) FROM users)));
+SELECT setval('recipes_seq', GREATEST((SELECT last_value FROM recipes_seq), (SELECT COALESCE(MAX(id), 0) FROM recipes)));
+SELECT setval('menus_seq', GREATEST((SELECT last_value FROM menus_seq), (SELECT COALESCE(MAX(id), 0) FROM menus)));
+SELECT setval('ingredients_seq', GREATEST((SELECT last_value FROM ingredients_seq), (SELECT COALESCE(MAX(id), 0) FROM ingredients)));
+SELECT setval('comments_seq', GREATEST((SELECT last_value FROM comments_seq), (SELECT COALESCE(MAX(id), 0) FROM comments)));
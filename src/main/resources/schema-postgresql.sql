@@ -0,0 +1,13 @@
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')) STORED;
+CREATE INDEX IF NOT EXISTS recipes_search_vector_idx ON recipes USING GIN (search_vector);
+
+DO 'BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = ''recipes'' AND column_name = ''seconds_duration''
+                 AND data_type = ''text'') THEN
+        ALTER TABLE recipes ALTER COLUMN seconds_duration TYPE bigint USING seconds_duration::bigint;
+    END IF;
+END';
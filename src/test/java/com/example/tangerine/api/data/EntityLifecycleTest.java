@@ -9,6 +9,7 @@ import com.example.tangerine.api.repository.MenuRepository;
 import com.example.tangerine.api.repository.RecipeRepository;
 import com.example.tangerine.api.repository.UserRepository;
 import com.example.tangerine.api.testcontainers.TestcontainersInitializer;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -176,4 +177,22 @@ public class EntityLifecycleTest {
     assertThat(recipeRepository.existsById(1L)).isTrue();
     assertThat(recipe.getComments()).doesNotContain(comment);
   }
+
+  @Test
+  @Sql({"/users-create.sql", "/recipes-with-ingredients-create.sql", "/menus-create.sql"})
+  void addRecipesSkipsExistingLinks() {
+    menuRepository.addRecipes(1L, List.of(1L, 2L));
+    menuRepository.addRecipes(1L, List.of(2L, 3L));
+
+    assertThat(menuRepository.findRecipeIdsById(1L)).containsExactlyInAnyOrder(1L, 2L, 3L);
+  }
+
+  @Test
+  @Sql({"/users-create.sql", "/recipes-with-ingredients-create.sql"})
+  void removeIngredientsDeletesOnlyGivenLinks() {
+    recipeRepository.addIngredients(1L, List.of(2L, 3L));
+    recipeRepository.removeIngredients(1L, List.of(1L, 3L));
+
+    assertThat(recipeRepository.findIngredientIdsById(1L)).containsExactly(2L);
+  }
 }
@@ -0,0 +1,90 @@
+package com.example.tangerine.api.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.tangerine.api.domain.Ingredient;
+import com.example.tangerine.api.repository.IngredientRepository;
+import com.example.tangerine.api.repository.projection.IngredientRef;
+import com.example.tangerine.api.testcontainers.TestcontainersInitializer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestcontainersInitializer.class)
+@Sql("/ingredients-create.sql")
+@Sql(scripts = "/cleanup.sql", executionPhase = AFTER_TEST_METHOD)
+public class SecondLevelCacheTest {
+
+  @Autowired
+  private IngredientRepository ingredientRepository;
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    entityManagerFactory.getCache().evictAll();
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @Test
+  void repeatedLookupIsServedFromCache() {
+    ingredientRepository.findById(1L);
+    ingredientRepository.findById(1L);
+
+    assertThat(statistics.getSecondLevelCacheMissCount()).isEqualTo(1);
+    assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    assertThat(entityManagerFactory.getCache().contains(Ingredient.class, 1L)).isTrue();
+  }
+
+  @Test
+  void updatedIngredientIsReadBackFromCache() {
+    var ingredient = ingredientRepository.findById(1L).orElseThrow();
+    ingredient.setName("Renamed ingredient");
+    ingredientRepository.save(ingredient);
+    statistics.clear();
+
+    assertThat(ingredientRepository.findById(1L))
+        .get()
+        .extracting(Ingredient::getName)
+        .isEqualTo("Renamed ingredient");
+    assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void deletedIngredientIsEvicted() {
+    ingredientRepository.findById(1L);
+
+    ingredientRepository.deleteById(1L);
+
+    assertThat(entityManagerFactory.getCache().contains(Ingredient.class, 1L)).isFalse();
+    assertThat(ingredientRepository.findById(1L)).isEmpty();
+  }
+
+  @Test
+  void cachedQueryIsInvalidatedByWrites() {
+    assertThat(ingredientRepository.findAllRefs()).hasSize(4);
+    assertThat(ingredientRepository.findAllRefs()).hasSize(4);
+    assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+    var ingredient = ingredientRepository.findById(1L).orElseThrow();
+    ingredient.setName("Renamed ingredient");
+    ingredientRepository.save(ingredient);
+
+    assertThat(ingredientRepository.findAllRefs())
+        .extracting(IngredientRef::getName)
+        .contains("Renamed ingredient");
+  }
+}
@@ -0,0 +1,136 @@
+package com.example.tangerine.api.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.tangerine.api.domain.Role;
+import com.example.tangerine.api.domain.User;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class JwtAuthenticationTest {
+  private static final String SECRET = "test-secret";
+
+  private JwtTokenProvider jwtProvider;
+  private UserDetailsService userDetailsService;
+  private VerifiedTokenCache verifiedTokenCache;
+  private JwtFilter jwtFilter;
+
+  @BeforeEach
+  void setUp() {
+    jwtProvider = spy(provider(SECRET));
+    userDetailsService = mock(UserDetailsService.class);
+    verifiedTokenCache = new VerifiedTokenCache(jwtProvider, 100, Duration.ofMinutes(10));
+    jwtFilter = new JwtFilter(jwtProvider, userDetailsService, verifiedTokenCache);
+    ReflectionTestUtils.setField(jwtFilter, "stateless", true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void claimsBecomeThePrincipal() {
+    var role = new Role();
+    role.setName("ROLE_ADMIN");
+
+    var principal = jwtProvider.toPrincipal(jwtProvider.generateToken(1L, "First", List.of(role)))
+        .orElseThrow();
+
+    assertThat(principal.getId()).isEqualTo(1L);
+    assertThat(principal.getUsername()).isEqualTo("First");
+    assertThat(principal.getAuthorities())
+        .extracting(GrantedAuthority::getAuthority)
+        .containsExactly("ROLE_ADMIN");
+    assertThat(principal.isExpiredAt(Instant.now())).isFalse();
+  }
+
+  // the provider stands in for a token verified just before its exp and read back after it
+  @Test
+  void cachedTokenIsRejectedAfterItsExpiry() {
+    var provider = mock(JwtTokenProvider.class);
+    var cache = new VerifiedTokenCache(provider, 100, Duration.ofMinutes(10));
+    var principal = new JwtPrincipal(1L, "First", List.of(), Instant.now().minusSeconds(1));
+    when(provider.toPrincipal("token")).thenReturn(Optional.of(principal), Optional.empty());
+
+    assertThat(cache.resolve("token")).contains(principal);
+    assertThat(cache.resolve("token")).isEmpty();
+    verify(provider, times(1)).toPrincipal("token");
+
+    assertThat(cache.resolve("token")).isEmpty();
+    verify(provider, times(2)).toPrincipal("token");
+  }
+
+  @Test
+  void tokenWithABadSignatureIsNeverCached() throws Exception {
+    var forged = provider("another-secret").generateToken(1L, "First", List.of());
+
+    assertThat(verifiedTokenCache.resolve(forged)).isEmpty();
+    assertThat(verifiedTokenCache.resolve(forged)).isEmpty();
+    verify(jwtProvider, times(2)).toPrincipal(forged);
+
+    filter(forged);
+    assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+  }
+
+  @Test
+  void statelessFilterTrustsTheClaims() throws Exception {
+    filter(jwtProvider.generateToken(1L, "First", List.of()));
+
+    assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+        .isInstanceOfSatisfying(JwtPrincipal.class, principal -> {
+          assertThat(principal.getId()).isEqualTo(1L);
+          assertThat(principal.getUsername()).isEqualTo("First");
+        });
+    verifyNoInteractions(userDetailsService);
+  }
+
+  @Test
+  void statefulFilterLoadsTheUser() throws Exception {
+    ReflectionTestUtils.setField(jwtFilter, "stateless", false);
+    var user = new User();
+    user.setUsername("First");
+    var userDetails = new UserDetailsImpl(user, List.of());
+    when(userDetailsService.loadUserByUsername("First")).thenReturn(userDetails);
+
+    filter(jwtProvider.generateToken(1L, "First", List.of()));
+
+    assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+        .isSameAs(userDetails);
+    verify(jwtProvider, never()).toPrincipal(anyString());
+  }
+
+  private void filter(String token) throws Exception {
+    var request = new MockHttpServletRequest();
+    request.addHeader("Authorization", "Bearer " + token);
+    jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+  }
+
+  private static JwtTokenProvider provider(String secret) {
+    var provider = new JwtTokenProvider();
+    ReflectionTestUtils.setField(provider, "jwtSecret", secret);
+    ReflectionTestUtils.setField(provider, "jwtIssuer", "tangerine-api");
+    provider.init();
+    return provider;
+  }
+}
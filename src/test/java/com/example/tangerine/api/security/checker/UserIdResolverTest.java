@@ -0,0 +1,99 @@
+package com.example.tangerine.api.security.checker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.tangerine.api.domain.User;
+import com.example.tangerine.api.repository.RecipeRepository;
+import com.example.tangerine.api.repository.UserRepository;
+import com.example.tangerine.api.security.JwtPrincipal;
+import com.example.tangerine.api.security.UserDetailsImpl;
+import com.example.tangerine.api.service.RequestLookupCache;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+public class UserIdResolverTest {
+  private UserRepository userRepository;
+  private RecipeRepository recipeRepository;
+  private UserIdResolver userIdResolver;
+  private RecipeChecker recipeChecker;
+  private UserChecker userChecker;
+
+  @BeforeEach
+  void setUp() {
+    userRepository = mock(UserRepository.class);
+    recipeRepository = mock(RecipeRepository.class);
+    var lookups = new RequestLookupCache();
+    userIdResolver = new UserIdResolver(userRepository, lookups);
+    recipeChecker = new RecipeChecker(recipeRepository, userIdResolver, lookups);
+    userChecker = new UserChecker(userRepository, userIdResolver, lookups);
+    when(userRepository.findIdByUsername("First")).thenReturn(Optional.of(1L));
+    when(recipeRepository.existsByIdAndAuthorId(1L, 1L)).thenReturn(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void jwtPrincipalSuppliesItsOwnId() {
+    authenticate(new JwtPrincipal(1L, "First", List.of(), null));
+
+    assertThat(userIdResolver.resolve("First")).contains(1L);
+    verifyNoInteractions(userRepository);
+  }
+
+  @Test
+  void loadedUserIsResolvedByUsername() {
+    authenticate(userDetails("First"));
+
+    assertThat(userIdResolver.resolve("First")).contains(1L);
+    verify(userRepository).findIdByUsername("First");
+  }
+
+  @Test
+  void principalOfAnotherUserIsNotTrusted() {
+    authenticate(new JwtPrincipal(2L, "Second", List.of(), null));
+
+    assertThat(userIdResolver.resolve("First")).contains(1L);
+    verify(userRepository).findIdByUsername("First");
+  }
+
+  @Test
+  void checkersAcceptAJwtPrincipal() {
+    authenticate(new JwtPrincipal(1L, "First", List.of(), null));
+
+    assertThat(recipeChecker.isAuthor(1L, "First")).isTrue();
+    assertThat(userChecker.check(1L, "First")).isTrue();
+    verifyNoInteractions(userRepository);
+  }
+
+  @Test
+  void checkersAcceptALoadedUser() {
+    authenticate(userDetails("First"));
+
+    assertThat(recipeChecker.isAuthor(1L, "First")).isTrue();
+    assertThat(userChecker.check(1L, "First")).isTrue();
+  }
+
+  private static UserDetails userDetails(String username) {
+    var user = new User();
+    user.setUsername(username);
+    return new UserDetailsImpl(user, List.of());
+  }
+
+  private static void authenticate(UserDetails principal) {
+    SecurityContextHolder.getContext().setAuthentication(
+        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+  }
+}
@@ -0,0 +1,88 @@
+package com.example.tangerine.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.tangerine.api.exception.RecipeNotFoundException;
+import com.example.tangerine.api.repository.projection.CommentView;
+import com.example.tangerine.api.testcontainers.TestcontainersInitializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestcontainersInitializer.class)
+@Sql({"/users-create.sql", "/recipes-with-ingredients-create.sql",
+    "/comments-timeline-create.sql"})
+@Sql(scripts = "/cleanup.sql", executionPhase = AFTER_TEST_METHOD)
+public class CommentTimelineTest {
+
+  @Autowired
+  private CommentService commentService;
+
+  // comments 1-3 share one created_at and 4-5 another
+  @Test
+  void pagesForwardAndBackAcrossTies() {
+    var first = commentService.findByRecipe(1L, null, 2);
+    assertThat(first.getContent()).extracting(CommentView::getId).containsExactly(1L, 2L);
+    assertThat(first.getPrevious()).isNull();
+
+    var second = commentService.findByRecipe(1L, decode(first.getNext()), 2);
+    assertThat(second.getContent()).extracting(CommentView::getId).containsExactly(3L, 4L);
+    assertThat(second.getPrevious()).isEqualTo(beforeFirstRow(second));
+    assertThat(second.getNext()).isEqualTo(afterLastRow(second));
+
+    var last = commentService.findByRecipe(1L, decode(second.getNext()), 2);
+    assertThat(last.getContent()).extracting(CommentView::getId).containsExactly(5L);
+    assertThat(last.getNext()).isNull();
+
+    var back = commentService.findByRecipe(1L, decode(last.getPrevious()), 2);
+    assertThat(back.getContent()).extracting(CommentView::getId).containsExactly(3L, 4L);
+    assertThat(back.getPrevious()).isEqualTo(beforeFirstRow(back));
+    assertThat(back.getNext()).isEqualTo(afterLastRow(back));
+
+    var start = commentService.findByRecipe(1L, decode(back.getPrevious()), 2);
+    assertThat(start.getContent()).extracting(CommentView::getId).containsExactly(1L, 2L);
+    assertThat(start.getPrevious()).isNull();
+    assertThat(start.getNext()).isEqualTo(afterLastRow(start));
+
+    assertThat(commentService.findByRecipe(1L, decode(start.getNext()), 2).getContent())
+        .extracting(CommentView::getId)
+        .containsExactly(3L, 4L);
+  }
+
+  @Test
+  void emptyPageOfAnExistingRecipeIsReturned() {
+    assertThat(commentService.findByRecipe(3L, null, 2).getContent()).isEmpty();
+
+    var pastTheEnd = commentService.findByRecipe(1L, null, 5).getContent().get(4);
+    assertThat(commentService.findByRecipe(1L,
+        TimelineCursor.after(pastTheEnd.getCreatedAt(), pastTheEnd.getId()), 2).getContent())
+        .isEmpty();
+  }
+
+  @Test
+  void missingRecipeIsNotFound() {
+    assertThatThrownBy(() -> commentService.findByRecipe(5L, null, 2))
+        .isInstanceOf(RecipeNotFoundException.class);
+  }
+
+  private static TimelineCursor decode(PageCursor cursor) {
+    return TimelineCursor.decode(cursor.encode());
+  }
+
+  private static TimelineCursor beforeFirstRow(CursorPage<CommentView> page) {
+    var row = page.getContent().get(0);
+    return TimelineCursor.before(row.getCreatedAt(), row.getId());
+  }
+
+  private static TimelineCursor afterLastRow(CursorPage<CommentView> page) {
+    var row = page.getContent().get(page.getContent().size() - 1);
+    return TimelineCursor.after(row.getCreatedAt(), row.getId());
+  }
+}
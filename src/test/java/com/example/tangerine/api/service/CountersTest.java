@@ -0,0 +1,144 @@
+package com.example.tangerine.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.tangerine.api.domain.Menu;
+import com.example.tangerine.api.repository.IngredientCounterRepository;
+import com.example.tangerine.api.repository.MenuRepository;
+import com.example.tangerine.api.repository.RecipeRepository;
+import com.example.tangerine.api.repository.projection.MenuView;
+import com.example.tangerine.api.repository.projection.RecipeView;
+import com.example.tangerine.api.service.impl.CounterReconciliation;
+import com.example.tangerine.api.testcontainers.TestcontainersInitializer;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlMergeMode;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestcontainersInitializer.class)
+@Sql({"/users-create.sql", "/recipes-with-ingredients-create.sql"})
+@Sql(scripts = "/cleanup.sql", executionPhase = AFTER_TEST_METHOD)
+@SqlMergeMode(SqlMergeMode.MergeMode.MERGE)
+public class CountersTest {
+
+  @Autowired
+  private CounterReconciliation counterReconciliation;
+  @Autowired
+  private RecipeService recipeService;
+  @Autowired
+  private MenuService menuService;
+  @Autowired
+  private UserService userService;
+  @Autowired
+  private RecipeRepository recipeRepository;
+  @Autowired
+  private MenuRepository menuRepository;
+  @Autowired
+  private IngredientCounterRepository ingredientCounterRepository;
+
+  // the fixtures insert rows directly, so every test starts from reconciled counters
+  @BeforeEach
+  void setUp() {
+    counterReconciliation.reconcile();
+  }
+
+  @Test
+  @Sql({"/menus-create.sql", "/comments-create.sql", "/counters-create.sql"})
+  void reconciliationRepairsDriftedCounters() {
+    assertThat(recipeRepository.findViewById(2L)).get().satisfies(recipe -> {
+      assertThat(recipe.getCommentCount()).isEqualTo(2);
+      assertThat(recipe.getIngredientCount()).isEqualTo(2);
+      assertThat(recipe.getMenuCount()).isEqualTo(1);
+      assertThat(recipe.getVersion()).isPositive();
+    });
+    assertThat(menuRepository.findViewById(2L)).get()
+        .extracting(MenuView::getRecipeCount).isEqualTo(2L);
+    assertThat(ingredientCounterRepository.findRecipeCounts(Set.of(1L, 4L)))
+        .containsEntry(1L, 2L)
+        .containsEntry(4L, 1L);
+    assertThat(drifted()).isZero();
+  }
+
+  @Test
+  void createdMenuCountsItsInsertedLinks() {
+    var menu = new Menu();
+    menu.setName("Weekly menu");
+
+    var created = menuService.create(menu, List.of(1L, 2L, 2L), "First");
+
+    assertThat(created.getRecipeCount()).isEqualTo(2);
+    assertThat(menuRepository.findViewById(created.getId())).get().satisfies(view -> {
+      assertThat(view.getRecipeCount()).isEqualTo(2);
+      assertThat(view.getVersion()).isEqualTo(created.getVersion());
+    });
+    assertThat(recipeRepository.findViewById(1L)).get()
+        .extracting(RecipeView::getMenuCount).isEqualTo(1L);
+    assertThat(drifted()).isZero();
+  }
+
+  @Test
+  void updatedRecipeCarriesTheStoredVersion() {
+    var recipe = recipeService.findById(1L).orElseThrow();
+    recipe.setName("Renamed recipe");
+
+    var updated = recipeService.update(recipe, List.of(2L, 3L));
+
+    assertThat(recipeRepository.findViewById(1L)).get().satisfies(view -> {
+      assertThat(view.getIngredientCount()).isEqualTo(updated.getIngredientCount());
+      assertThat(view.getVersion()).isEqualTo(updated.getVersion());
+    });
+  }
+
+  @Test
+  void repeatedLinkChangesAreCountedOnce() {
+    var version = recipeRepository.findViewById(1L).orElseThrow().getVersion();
+
+    recipeService.addIngredient(1L, 2L);
+    recipeService.addIngredient(1L, 2L);
+    recipeService.removeIngredient(1L, 3L);
+
+    assertThat(recipeRepository.findViewById(1L)).get().satisfies(recipe -> {
+      assertThat(recipe.getIngredientCount()).isEqualTo(2);
+      assertThat(recipe.getVersion()).isEqualTo(version + 1);
+    });
+    assertThat(ingredientCounterRepository.findRecipeCounts(Set.of(2L))).containsEntry(2L, 2L);
+    assertThat(drifted()).isZero();
+  }
+
+  @Test
+  @Sql({"/menus-create.sql", "/comments-create.sql", "/counters-create.sql"})
+  void deletedUserLeavesSurvivingCountersExact() {
+    var menuVersion = menuRepository.findViewById(2L).orElseThrow().getVersion();
+
+    // user 1 wrote recipe 1 (in menus 2 and 3), menu 1 (holding recipe 3) and a comment on 2
+    userService.deleteById(1L);
+
+    assertThat(menuRepository.findViewById(2L)).get().satisfies(menu -> {
+      assertThat(menu.getRecipeCount()).isEqualTo(1);
+      assertThat(menu.getVersion()).isEqualTo(menuVersion + 1);
+    });
+    assertThat(recipeRepository.findViewById(2L)).get()
+        .extracting(RecipeView::getCommentCount).isEqualTo(1L);
+    assertThat(recipeRepository.findViewById(3L)).get()
+        .extracting(RecipeView::getMenuCount).isEqualTo(0L);
+    assertThat(ingredientCounterRepository.findRecipeCounts(Set.of(1L))).containsEntry(1L, 1L);
+    assertThat(drifted()).isZero();
+  }
+
+  private int drifted() {
+    return recipeRepository.reconcileCommentCounts()
+        + recipeRepository.reconcileIngredientCounts()
+        + recipeRepository.reconcileMenuCounts()
+        + menuRepository.reconcileRecipeCounts()
+        + ingredientCounterRepository.reconcileRecipeCounts();
+  }
+}
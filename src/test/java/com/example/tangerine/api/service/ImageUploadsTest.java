@@ -0,0 +1,86 @@
+package com.example.tangerine.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.tangerine.api.exception.UploadCapacityExceededException;
+import com.example.tangerine.api.service.impl.ImageUploads;
+import com.example.tangerine.api.service.impl.ImageVariants;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+public class ImageUploadsTest {
+  private static final String BUCKET = "bucket";
+
+  private StorageService storageService;
+  private ImageVariants imageVariants;
+  private ImageUploads imageUploads;
+
+  @BeforeEach
+  void setUp() {
+    storageService = mock(StorageService.class);
+    imageVariants = mock(ImageVariants.class);
+    imageUploads = new ImageUploads(storageService, imageVariants, DataSize.ofKilobytes(2));
+    ReflectionTestUtils.setField(imageUploads, "bucket", BUCKET);
+  }
+
+  @Test
+  void uploadBeyondCapacityFailsWithoutWaiting() {
+    var pending = new CompletableFuture<Void>();
+    when(storageService.uploadImageAsync(any(InputStream.class), anyLong(), anyString(),
+        eq(BUCKET))).thenReturn(pending, CompletableFuture.completedFuture(null));
+
+    var first = imageUploads.upload("recipe-images/1", file(2048));
+    assertThatThrownBy(() -> imageUploads.upload("recipe-images/1", file(1)))
+        .isInstanceOf(UploadCapacityExceededException.class);
+
+    pending.complete(null);
+    var second = imageUploads.upload("recipe-images/1", file(1));
+
+    assertThat(first).isCompleted();
+    assertThat(second).isCompleted();
+  }
+
+  @Test
+  void variantsAreQueuedOnceTheObjectIsStored() {
+    var pending = new CompletableFuture<Void>();
+    when(storageService.uploadImageAsync(any(InputStream.class), anyLong(), anyString(),
+        eq(BUCKET))).thenReturn(pending);
+
+    var upload = imageUploads.upload("recipe-images/1", file(10));
+    verify(imageVariants, never()).generate(anyString());
+
+    pending.complete(null);
+
+    var imageKey = upload.join();
+    verify(imageVariants).generate("recipe-images/1/" + imageKey);
+  }
+
+  @Test
+  void failedUploadReleasesCapacity() {
+    when(storageService.uploadImageAsync(any(InputStream.class), anyLong(), anyString(),
+        eq(BUCKET))).thenReturn(CompletableFuture.failedFuture(new IllegalStateException()),
+        CompletableFuture.completedFuture(null));
+
+    assertThat(imageUploads.upload("recipe-images/1", file(2048))).isCompletedExceptionally();
+    assertThat(imageUploads.upload("recipe-images/1", file(2048))).isCompleted();
+    verify(imageVariants).generate(anyString());
+  }
+
+  private static MockMultipartFile file(int size) {
+    return new MockMultipartFile("file", "image.jpg", "image/jpeg", new byte[size]);
+  }
+}
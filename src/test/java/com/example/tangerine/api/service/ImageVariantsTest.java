@@ -0,0 +1,116 @@
+package com.example.tangerine.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.tangerine.api.exception.InvalidImageSizeException;
+import com.example.tangerine.api.service.impl.ImageVariants;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ImageVariantsTest {
+  private static final String BUCKET = "bucket";
+
+  private StorageService storageService;
+  private ImageVariants imageVariants;
+  private final Map<String, byte[]> uploaded = new ConcurrentHashMap<>();
+
+  @BeforeEach
+  void setUp() {
+    storageService = mock(StorageService.class);
+    doAnswer(invocation -> uploaded.put(invocation.getArgument(1), invocation.getArgument(0)))
+        .when(storageService).uploadImage(any(byte[].class), anyString(), eq(BUCKET));
+    imageVariants = new ImageVariants(storageService, 1, 1, 0.8f);
+    ReflectionTestUtils.setField(imageVariants, "bucket", BUCKET);
+  }
+
+  @AfterEach
+  void tearDown() {
+    ReflectionTestUtils.invokeMethod(imageVariants, "shutdown");
+  }
+
+  @Test
+  void sizesAreParsedCaseInsensitively() {
+    assertThat(ImageVariant.fromKey(null)).isNull();
+    assertThat(ImageVariant.fromKey(" ")).isNull();
+    assertThat(ImageVariant.fromKey(" Small ")).isEqualTo(ImageVariant.SMALL);
+    assertThatThrownBy(() -> ImageVariant.fromKey("huge"))
+        .isInstanceOf(InvalidImageSizeException.class);
+  }
+
+  @Test
+  void variantKeysAndTagsExtendTheOriginal() {
+    assertThat(ImageVariant.MEDIUM.objectKey("recipe-images/1/key"))
+        .isEqualTo("recipe-images/1/key/medium");
+    assertThat(imageVariants.tag("recipe-images/1/key", null)).isEqualTo("key");
+    assertThat(imageVariants.tag("recipe-images/1/key", ImageVariant.LARGE))
+        .isEqualTo("key-large");
+  }
+
+  @Test
+  void everyVariantIsScaledWithinItsBounds() throws IOException {
+    when(storageService.findByKey("images/key", BUCKET))
+        .thenReturn(new ByteArrayResource(png(2400, 1200)));
+
+    imageVariants.generate("images/key");
+
+    verify(storageService, timeout(5000).times(ImageVariant.values().length))
+        .uploadImage(any(byte[].class), anyString(), eq(BUCKET));
+    for (var variant : ImageVariant.values()) {
+      var bytes = uploaded.get(variant.objectKey("images/key"));
+      var image = ImageIO.read(new ByteArrayInputStream(bytes));
+      assertThat(image.getWidth()).isEqualTo(variant.getMaxDimension());
+      assertThat(image.getHeight()).isEqualTo(variant.getMaxDimension() / 2);
+    }
+  }
+
+  @Test
+  void generationIsSkippedWhenTheQueueIsFull() throws Exception {
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var content = png(10, 10);
+    when(storageService.findByKey(anyString(), eq(BUCKET))).thenAnswer(invocation -> {
+      started.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return new ByteArrayResource(content);
+    });
+
+    imageVariants.generate("running");
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    imageVariants.generate("queued");
+    imageVariants.generate("rejected");
+    release.countDown();
+
+    verify(storageService, timeout(5000)).findByKey("queued", BUCKET);
+    verify(storageService, timeout(5000).times(2 * ImageVariant.values().length))
+        .uploadImage(any(byte[].class), anyString(), eq(BUCKET));
+    verify(storageService, never()).findByKey("rejected", BUCKET);
+  }
+
+  private static byte[] png(int width, int height) throws IOException {
+    var output = new ByteArrayOutputStream();
+    ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", output);
+    return output.toByteArray();
+  }
+}
@@ -0,0 +1,75 @@
+package com.example.tangerine.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.tangerine.api.testcontainers.TestcontainersInitializer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestcontainersInitializer.class)
+@Sql({"/users-create.sql", "/recipes-with-ingredients-create.sql", "/menus-create.sql",
+    "/counters-create.sql"})
+@Sql(scripts = "/cleanup.sql", executionPhase = AFTER_TEST_METHOD)
+public class MembershipRewriteTest {
+
+  @Autowired
+  private MenuService menuService;
+  @Autowired
+  private RecipeService recipeService;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  // a row that is deleted and inserted again gets a new xmin, an untouched row keeps its own
+  @Test
+  void menuRewriteOnlyTouchesChangedRecipes() {
+    var kept = xmin("menus_recipes", "menu_id = 2 AND recipe_id = 2");
+
+    menuService.update(menuService.findById(2L).orElseThrow(), List.of(2L, 3L));
+
+    assertThat(jdbcTemplate.queryForList(
+        "SELECT recipe_id FROM menus_recipes WHERE menu_id = 2 ORDER BY recipe_id", Long.class))
+        .containsExactly(2L, 3L);
+    assertThat(xmin("menus_recipes", "menu_id = 2 AND recipe_id = 2")).isEqualTo(kept);
+  }
+
+  @Test
+  void recipeRewriteOnlyTouchesChangedIngredients() {
+    var kept = xmin("recipes_ingredients", "recipe_id = 2 AND ingredient_id = 2");
+
+    recipeService.update(recipeService.findById(2L).orElseThrow(), List.of(2L, 3L));
+
+    assertThat(jdbcTemplate.queryForList(
+        "SELECT ingredient_id FROM recipes_ingredients WHERE recipe_id = 2 ORDER BY ingredient_id",
+        Long.class))
+        .containsExactly(2L, 3L);
+    assertThat(xmin("recipes_ingredients", "recipe_id = 2 AND ingredient_id = 2"))
+        .isEqualTo(kept);
+  }
+
+  @Test
+  void unchangedMembershipIsLeftAlone() {
+    var kept = xmin("menus_recipes", "menu_id = 2 AND recipe_id = 1");
+
+    var updated = menuService.update(menuService.findById(2L).orElseThrow(), List.of(1L, 2L));
+
+    assertThat(updated.getVersion()).isZero();
+    assertThat(jdbcTemplate.queryForList(
+        "SELECT recipe_id FROM menus_recipes WHERE menu_id = 2 ORDER BY recipe_id", Long.class))
+        .containsExactly(1L, 2L);
+    assertThat(xmin("menus_recipes", "menu_id = 2 AND recipe_id = 1")).isEqualTo(kept);
+  }
+
+  private String xmin(String table, String condition) {
+    return jdbcTemplate.queryForObject(
+        "SELECT xmin::text FROM %s WHERE %s".formatted(table, condition), String.class);
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.tangerine.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.example.tangerine.api.exception.PresignedUploadsDisabledException;
+import com.example.tangerine.api.service.impl.ImageVariants;
+import com.example.tangerine.api.service.impl.PresignedImages;
+import java.net.URI;
+import java.time.Instant;
+import java.util.OptionalLong;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+public class PresignedImagesTest {
+  private StorageService storageService;
+  private PresignedStorageService presignedStorage;
+  private ImageVariants imageVariants;
+  private PresignedImages presignedImages;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    storageService = mock(StorageService.class);
+    presignedStorage = mock(PresignedStorageService.class);
+    imageVariants = mock(ImageVariants.class);
+    ObjectProvider<PresignedStorageService> provider = mock(ObjectProvider.class);
+    when(provider.getObject()).thenReturn(presignedStorage);
+    presignedImages = new PresignedImages(storageService, provider, imageVariants);
+    ReflectionTestUtils.setField(presignedImages, "bucket", "bucket");
+    ReflectionTestUtils.setField(presignedImages, "maxUploadSize", DataSize.ofMegabytes(1));
+  }
+
+  @Test
+  void uploadsAreRejectedWhenPresignedModeIsDisabled() {
+    ReflectionTestUtils.setField(presignedImages, "enabled", false);
+    var imageKey = UUID.randomUUID().toString();
+
+    assertThatThrownBy(() -> presignedImages.createUpload("recipe-images/1"))
+        .isInstanceOf(PresignedUploadsDisabledException.class);
+    assertThatThrownBy(() -> presignedImages.confirmUpload("recipe-images/1", imageKey))
+        .isInstanceOf(PresignedUploadsDisabledException.class);
+    verifyNoInteractions(storageService, presignedStorage, imageVariants);
+  }
+
+  @Test
+  void uploadsArePresignedWhenEnabled() {
+    ReflectionTestUtils.setField(presignedImages, "enabled", true);
+    var url = URI.create("https://storage.example.com/upload");
+    var expiresAt = Instant.now().plusSeconds(60);
+    when(presignedStorage.presignPut(anyString(), eq("bucket")))
+        .thenReturn(new PresignedUrl(url, expiresAt));
+
+    var upload = presignedImages.createUpload("recipe-images/1");
+
+    assertThat(upload.getUrl()).isEqualTo(url);
+    verify(presignedStorage).presignPut("recipe-images/1/" + upload.getImageKey(), "bucket");
+  }
+
+  @Test
+  void confirmedUploadGeneratesVariants() {
+    ReflectionTestUtils.setField(presignedImages, "enabled", true);
+    var imageKey = UUID.randomUUID().toString();
+    var objectKey = "recipe-images/1/" + imageKey;
+    when(storageService.findContentLength(objectKey, "bucket")).thenReturn(OptionalLong.of(10));
+
+    assertThat(presignedImages.confirmUpload("recipe-images/1", imageKey)).isEqualTo(imageKey);
+    verify(imageVariants).generate(objectKey);
+    verify(storageService, never()).deleteByKey(any(), any());
+  }
+}
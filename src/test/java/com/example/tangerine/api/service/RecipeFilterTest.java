@@ -0,0 +1,89 @@
+package com.example.tangerine.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.data.domain.Sort.Direction.DESC;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.tangerine.api.exception.InvalidCursorException;
+import com.example.tangerine.api.repository.projection.RecipeView;
+import com.example.tangerine.api.testcontainers.TestcontainersInitializer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestcontainersInitializer.class)
+@Sql({"/users-create.sql", "/recipes-sort-create.sql"})
+@Sql(scripts = "/cleanup.sql", executionPhase = AFTER_TEST_METHOD)
+public class RecipeFilterTest {
+  private static final RecipeFilter NO_FILTER =
+      new RecipeFilter(null, null, null, null, null, null);
+
+  @Autowired
+  private RecipeService recipeService;
+
+  // pages of two split every group of tied sort values
+  @Test
+  void everySortPagesThroughTiesInBothDirections() {
+    assertThat(pageThrough(RecipeSort.CREATED, ASC)).containsExactly(1L, 2L, 4L, 3L, 6L, 5L);
+    assertThat(pageThrough(RecipeSort.CREATED, DESC)).containsExactly(5L, 6L, 3L, 4L, 2L, 1L);
+    assertThat(pageThrough(RecipeSort.COST, ASC)).containsExactly(1L, 2L, 4L, 3L, 6L);
+    assertThat(pageThrough(RecipeSort.COST, DESC)).containsExactly(6L, 3L, 4L, 2L, 1L);
+    assertThat(pageThrough(RecipeSort.DURATION, ASC)).containsExactly(1L, 3L, 4L, 2L, 6L);
+    assertThat(pageThrough(RecipeSort.DURATION, DESC)).containsExactly(6L, 2L, 4L, 3L, 1L);
+  }
+
+  @Test
+  void rowsWithoutTheSortValueAreExcluded() {
+    assertThat(recipeService.filter(NO_FILTER, RecipeSort.COST, ASC, null, 10).getContent())
+        .extracting(RecipeView::getId)
+        .doesNotContain(5L);
+    assertThat(recipeService.filter(NO_FILTER, RecipeSort.DURATION, DESC, null, 10).getContent())
+        .extracting(RecipeView::getId)
+        .doesNotContain(5L);
+  }
+
+  @Test
+  void cursorOfAnotherSortOrDirectionIsRejected() {
+    var next = recipeService.filter(NO_FILTER, RecipeSort.COST, ASC, null, 2).getNext();
+    var cursor = RecipeSortCursor.decode(next.encode());
+
+    assertThatThrownBy(() -> recipeService.filter(NO_FILTER, RecipeSort.COST, DESC, cursor, 2))
+        .isInstanceOf(InvalidCursorException.class);
+    assertThatThrownBy(() ->
+        recipeService.filter(NO_FILTER, RecipeSort.DURATION, ASC, cursor, 2))
+        .isInstanceOf(InvalidCursorException.class);
+  }
+
+  @Test
+  void filtersNarrowThePages() {
+    var filter = new RecipeFilter(null, null, 1000L, 100L, null, null);
+
+    assertThat(recipeService.filter(filter, RecipeSort.CREATED, ASC, null, 10).getContent())
+        .extracting(RecipeView::getId)
+        .containsExactly(1L, 4L, 3L);
+  }
+
+  private List<Long> pageThrough(RecipeSort sort, Sort.Direction direction) {
+    var ids = new ArrayList<Long>();
+    RecipeSortCursor cursor = null;
+    for (var pages = 0; pages < 10; pages++) {
+      var page = recipeService.filter(NO_FILTER, sort, direction, cursor, 2);
+      page.getContent().forEach(recipe -> ids.add(recipe.getId()));
+      if (page.getNext() == null) {
+        break;
+      }
+      cursor = RecipeSortCursor.decode(page.getNext().encode());
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,66 @@
+package com.example.tangerine.api.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.tangerine.api.repository.RecipeRepository;
+import com.example.tangerine.api.testcontainers.TestcontainersInitializer;
+import java.io.ByteArrayInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestcontainersInitializer.class)
+@Sql(scripts = "/cleanup.sql", executionPhase = AFTER_TEST_METHOD)
+public class RecipeImportServiceTest {
+
+  @Autowired
+  private RecipeImportService recipeImportService;
+  @Autowired
+  private RecipeRepository recipeRepository;
+
+  @Test
+  @Sql({"/users-create.sql", "/ingredients-create.sql"})
+  void invalidLinesAreReportedWithoutRejectingValidOnes() {
+    var ndjson = String.join("\n",
+        "{\"name\": \"Soup\", \"description\": \"Hot\", \"ingredients\": [\"First ingredient\"]}",
+        "{\"name\": \"Broken\"",
+        "{\"description\": \"Nameless\", \"ingredients\": []}",
+        "",
+        "{\"name\": \"Stew\", \"description\": \"Thick\", \"ingredients\": [\"Saffron\"]}",
+        "{\"name\": \"Salad\", \"description\": \"Fresh\", "
+            + "\"ingredients\": [\" second INGREDIENT \"]}");
+
+    var report = recipeImportService.importRecipes(
+        new ByteArrayInputStream(ndjson.getBytes(UTF_8)), "First");
+
+    assertThat(report.getImported()).isEqualTo(2);
+    assertThat(report.getFailed()).isEqualTo(3);
+    assertThat(report.getErrors())
+        .extracting(ImportReport.LineError::getLine)
+        .containsExactly(2L, 3L, 5L);
+    assertThat(report.getErrors().get(0).getMessage()).startsWith("Malformed JSON");
+    assertThat(report.getErrors().get(1).getMessage()).isEqualTo("name: Specify name");
+    assertThat(report.getErrors().get(2).getMessage()).isEqualTo("Unknown ingredients [Saffron]");
+    assertThat(recipeRepository.count()).isEqualTo(2);
+  }
+
+  @Test
+  @Sql("/users-create.sql")
+  void reportedErrorsAreCappedButAllFailuresAreCounted() {
+    var ndjson = "{}\n".repeat(1005);
+
+    var report = recipeImportService.importRecipes(
+        new ByteArrayInputStream(ndjson.getBytes(UTF_8)), "First");
+
+    assertThat(report.getImported()).isZero();
+    assertThat(report.getFailed()).isEqualTo(1005);
+    assertThat(report.getErrors()).hasSize(1000);
+  }
+}
@@ -0,0 +1,138 @@
+package com.example.tangerine.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.tangerine.api.exception.InvalidCursorException;
+import com.example.tangerine.api.repository.RecipeRepository;
+import com.example.tangerine.api.repository.projection.RecipeIngredientLink;
+import com.example.tangerine.api.service.impl.RecipeIngredientIndex;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class RecipeIngredientIndexTest {
+  private RecipeRepository recipeRepository;
+  private RecipeIngredientIndex index;
+
+  @BeforeEach
+  void setUp() {
+    recipeRepository = mock(RecipeRepository.class);
+    var transactionTemplate = mock(TransactionTemplate.class);
+    doAnswer(invocation -> {
+      invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+      return null;
+    }).when(transactionTemplate).executeWithoutResult(any());
+    // recipe 1 uses {1, 2}, 2 uses {1}, 3 uses {2, 3} and 4 uses {3}
+    when(recipeRepository.streamIngredientLinks()).thenReturn(Stream.of(
+        link(1L, 1L), link(1L, 2L), link(2L, 1L), link(3L, 2L), link(3L, 3L), link(4L, 3L)));
+    index = new RecipeIngredientIndex(recipeRepository, transactionTemplate);
+    index.afterSingletonsInstantiated();
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  void recipesAreMatchedByMode() {
+    assertThat(index.find(Set.of(1L, 2L), IngredientMatch.ALL, null, 10)).containsExactly(1L);
+    assertThat(index.find(Set.of(1L, 5L), IngredientMatch.ALL, null, 10)).isEmpty();
+    assertThat(index.find(Set.of(1L, 3L), IngredientMatch.ANY, null, 10))
+        .containsExactly(1L, 2L, 3L, 4L);
+    assertThat(index.find(Set.of(1L, 2L), IngredientMatch.SUBSET, null, 10))
+        .containsExactly(1L, 2L);
+    assertThat(index.find(Set.of(3L), IngredientMatch.SUBSET, null, 10)).containsExactly(4L);
+  }
+
+  @Test
+  void pagesContinueAfterTheCursor() {
+    assertThat(index.find(Set.of(1L, 2L, 3L), IngredientMatch.ANY, null, 2))
+        .containsExactly(1L, 2L);
+    assertThat(index.find(Set.of(1L, 2L, 3L), IngredientMatch.ANY, 2L, 2))
+        .containsExactly(3L, 4L);
+    assertThat(index.find(Set.of(1L, 3L), IngredientMatch.SUBSET, null, 1)).containsExactly(2L);
+    assertThat(index.find(Set.of(1L, 3L), IngredientMatch.SUBSET, 2L, 1)).containsExactly(4L);
+    assertThat(index.find(Set.of(1L, 3L), IngredientMatch.SUBSET, 4L, 1)).isEmpty();
+  }
+
+  @Test
+  void removedRecipeLeavesEveryPosting() {
+    index.removeRecipe(1L);
+
+    assertThat(index.find(Set.of(1L, 2L), IngredientMatch.ANY, null, 10))
+        .containsExactly(2L, 3L);
+    assertThat(index.find(Set.of(1L, 2L), IngredientMatch.ALL, null, 10)).isEmpty();
+  }
+
+  @Test
+  void removedIngredientLeavesEveryRecipe() {
+    index.removeIngredient(3L);
+
+    assertThat(index.find(Set.of(3L), IngredientMatch.ANY, null, 10)).isEmpty();
+    assertThat(index.find(Set.of(2L), IngredientMatch.SUBSET, null, 10)).containsExactly(3L);
+  }
+
+  @Test
+  void updatesWaitForTheCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+    index.add(5L, List.of(1L));
+    index.remove(2L, List.of(1L));
+
+    assertThat(index.find(Set.of(1L), IngredientMatch.ANY, null, 10)).containsExactly(1L, 2L);
+
+    TransactionSynchronizationUtils.invokeAfterCommit(
+        TransactionSynchronizationManager.getSynchronizations());
+    assertThat(index.find(Set.of(1L), IngredientMatch.ANY, null, 10)).containsExactly(1L, 5L);
+  }
+
+  @Test
+  void idsBeyondTheIntRangeAreIndexed() {
+    var large = (long) Integer.MAX_VALUE + 1;
+    index.add(large, List.of(large, 1L));
+
+    assertThat(index.find(Set.of(1L), IngredientMatch.ANY, 2L, 10)).containsExactly(large);
+    assertThat(index.find(Set.of(large, 1L), IngredientMatch.SUBSET, null, 10))
+        .containsExactly(2L, large);
+    assertThat(index.find(Set.of(1L), IngredientMatch.ANY, large, 10)).isEmpty();
+
+    index.removeRecipe(large);
+    assertThat(index.find(Set.of(large), IngredientMatch.ANY, null, 10)).isEmpty();
+  }
+
+  @Test
+  void negativeCursorIsRejected() {
+    assertThatThrownBy(() -> index.find(Set.of(1L), IngredientMatch.SUBSET, -1L, 10))
+        .isInstanceOf(InvalidCursorException.class);
+    assertThat(index.find(Set.of(1L), IngredientMatch.ANY, Long.MAX_VALUE, 10)).isEmpty();
+  }
+
+  private static RecipeIngredientLink link(Long recipeId, Long ingredientId) {
+    return new RecipeIngredientLink() {
+      @Override
+      public Long getRecipeId() {
+        return recipeId;
+      }
+
+      @Override
+      public Long getIngredientId() {
+        return ingredientId;
+      }
+    };
+  }
+}
@@ -0,0 +1,59 @@
+package com.example.tangerine.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.tangerine.api.repository.projection.RecipeView;
+import com.example.tangerine.api.testcontainers.TestcontainersInitializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestcontainersInitializer.class)
+@Sql({"/users-create.sql", "/recipes-search-create.sql"})
+@Sql(scripts = "/cleanup.sql", executionPhase = AFTER_TEST_METHOD)
+public class RecipeSearchTest {
+
+  @Autowired
+  private RecipeService recipeService;
+
+  @Test
+  void matchesAreRankedByWeightedRelevance() {
+    var page = recipeService.search("tomato", null, 10);
+
+    assertThat(page.getContent()).extracting(RecipeView::getId).containsExactly(3L, 1L, 2L);
+    assertThat(page.getNext()).isNull();
+  }
+
+  @Test
+  void nextPageContinuesAfterTheCursor() {
+    var first = recipeService.search("tomato", null, 2);
+
+    assertThat(first.getContent()).extracting(RecipeView::getId).containsExactly(3L, 1L);
+    assertThat(first.getNext()).isInstanceOf(SearchCursor.class);
+
+    var cursor = SearchCursor.decode(first.getNext().encode());
+    var second = recipeService.search("tomato", cursor, 2);
+
+    assertThat(second.getContent()).extracting(RecipeView::getId).containsExactly(2L);
+    assertThat(second.getNext()).isNull();
+  }
+
+  @Test
+  void wordFormsAreMatchedThroughStemming() {
+    assertThat(recipeService.search("pancake", null, 10).getContent())
+        .extracting(RecipeView::getId)
+        .containsExactly(4L);
+  }
+
+  @Test
+  void blankOrUnmatchedQueriesReturnNothing() {
+    assertThat(recipeService.search(" ", null, 10).getContent()).isEmpty();
+    assertThat(recipeService.search("lasagna", null, 10).getContent()).isEmpty();
+  }
+}
@@ -0,0 +1,61 @@
+package com.example.tangerine.api.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+
+import com.example.tangerine.api.repository.projection.MenuView;
+import com.example.tangerine.api.repository.projection.RecipeView;
+import com.example.tangerine.api.testcontainers.TestcontainersInitializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+
+@SpringBootTest(properties = "profile.section.max-size=3")
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestcontainersInitializer.class)
+@Sql({"/users-create.sql", "/profile-create.sql"})
+@Sql(scripts = "/cleanup.sql", executionPhase = AFTER_TEST_METHOD)
+public class UserProfileTest {
+
+  @Autowired
+  private UserService userService;
+
+  @Test
+  void sectionsHoldTheLatestRowsUpToTheirLimits() {
+    var profile = userService.getProfile(1L, 2, 2).orElseThrow();
+
+    assertThat(profile.getUser().getUsername()).isEqualTo("First");
+    assertThat(profile.getRecipes()).extracting(RecipeView::getId).containsExactly(4L, 3L);
+    assertThat(profile.isMoreRecipes()).isTrue();
+    assertThat(profile.getMenus()).extracting(MenuView::getId).containsExactly(2L, 1L);
+    assertThat(profile.isMoreMenus()).isFalse();
+  }
+
+  @Test
+  void nonPositiveLimitsShowOneRow() {
+    var profile = userService.getProfile(1L, 0, -5).orElseThrow();
+
+    assertThat(profile.getRecipes()).extracting(RecipeView::getId).containsExactly(4L);
+    assertThat(profile.isMoreRecipes()).isTrue();
+    assertThat(profile.getMenus()).extracting(MenuView::getId).containsExactly(2L);
+    assertThat(profile.isMoreMenus()).isTrue();
+  }
+
+  @Test
+  void limitsAreCappedAtTheMaximumSectionSize() {
+    var profile = userService.getProfile(1L, 100, 100).orElseThrow();
+
+    assertThat(profile.getRecipes()).extracting(RecipeView::getId).containsExactly(4L, 3L, 2L);
+    assertThat(profile.isMoreRecipes()).isTrue();
+    assertThat(profile.getMenus()).extracting(MenuView::getId).containsExactly(2L, 1L);
+    assertThat(profile.isMoreMenus()).isFalse();
+  }
+
+  @Test
+  void unknownUserHasNoProfile() {
+    assertThat(userService.getProfile(5L, 2, 2)).isEmpty();
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.tangerine.api.storage;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.tangerine.api.exception.ImageNotFoundException;
+import com.example.tangerine.api.service.impl.AwsS3StorageService;
+import com.example.tangerine.api.testcontainers.LocalStackInitializer;
+import com.example.tangerine.api.testcontainers.TestcontainersInitializer;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpRange;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = {
+    TestcontainersInitializer.class,
+    LocalStackInitializer.class
+})
+public class AwsS3StorageServiceTest {
+  private static final byte[] CONTENT = "tangerine image bytes".getBytes(UTF_8);
+
+  @Autowired
+  private AwsS3StorageService storageService;
+  @Value("${aws.bucket}")
+  private String bucket;
+
+  @Test
+  void uploadedObjectIsReadBackAsync() throws Exception {
+    storageService.uploadImageAsync(
+        new ByteArrayInputStream(CONTENT), CONTENT.length, "test/full", bucket).join();
+
+    var resource = storageService.findByKeyAsync("test/full", bucket).join();
+
+    try (var content = resource.getInputStream()) {
+      assertThat(content.readAllBytes()).isEqualTo(CONTENT);
+    }
+  }
+
+  @Test
+  void rangeIsFetchedFromStorage() throws Exception {
+    storageService.uploadImageAsync(
+        new ByteArrayInputStream(CONTENT), CONTENT.length, "test/range", bucket).join();
+
+    var range = storageService.findRangeAsync(
+        "test/range", bucket, HttpRange.createByteRange(4, 8)).join();
+
+    assertThat(range.getFirst()).isEqualTo(4);
+    assertThat(range.getLast()).isEqualTo(8);
+    assertThat(range.getTotalLength()).isEqualTo(CONTENT.length);
+    try (var content = range.getContent().getInputStream()) {
+      assertThat(new String(content.readAllBytes(), UTF_8)).isEqualTo("erine");
+    }
+  }
+
+  @Test
+  void missingObjectFailsWithImageNotFound() {
+    var result = storageService.findByKeyAsync("test/missing", bucket);
+
+    assertThatThrownBy(result::join)
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(ImageNotFoundException.class);
+  }
+}
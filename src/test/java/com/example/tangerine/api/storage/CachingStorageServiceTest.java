@@ -0,0 +1,101 @@
+package com.example.tangerine.api.storage;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.tangerine.api.exception.ImageNotFoundException;
+import com.example.tangerine.api.service.StorageService;
+import com.example.tangerine.api.service.impl.CachingStorageService;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpRange;
+
+public class CachingStorageServiceTest {
+  private static final String BUCKET = "bucket";
+  private static final String CONTENT = "0123456789";
+
+  @TempDir
+  private Path directory;
+
+  private StorageService delegate;
+  private CachingStorageService storageService;
+
+  @BeforeEach
+  void setUp() {
+    delegate = mock(StorageService.class);
+    storageService = new CachingStorageService(delegate, directory, 1024 * 1024, Runnable::run);
+  }
+
+  @Test
+  void concurrentMissesShareOneOriginDownload() throws IOException {
+    var origin = new CompletableFuture<Resource>();
+    when(delegate.findByKeyAsync("key", BUCKET)).thenReturn(origin);
+
+    var first = storageService.findByKeyAsync("key", BUCKET);
+    var second = storageService.findRangeAsync("key", BUCKET, HttpRange.createByteRange(2, 4));
+    origin.complete(new ByteArrayResource(CONTENT.getBytes(UTF_8)));
+
+    assertThat(read(first.join())).isEqualTo(CONTENT);
+    assertThat(read(second.join().getContent())).isEqualTo("234");
+    assertThat(storageService.getBytesFetchedFromOrigin()).isEqualTo(CONTENT.length());
+    verify(delegate, times(1)).findByKeyAsync("key", BUCKET);
+  }
+
+  @Test
+  void cachedObjectIsServedWithoutOrigin() throws IOException {
+    when(delegate.findByKey("key", BUCKET))
+        .thenReturn(new ByteArrayResource(CONTENT.getBytes(UTF_8)));
+
+    storageService.findByKey("key", BUCKET);
+    var range = storageService.findRange("key", BUCKET, HttpRange.createSuffixRange(3));
+
+    assertThat(read(range.getContent())).isEqualTo("789");
+    assertThat(range.getFirst()).isEqualTo(7);
+    assertThat(range.getTotalLength()).isEqualTo(CONTENT.length());
+    assertThat(storageService.getHitCount()).isEqualTo(1);
+    verify(delegate, times(1)).findByKey("key", BUCKET);
+  }
+
+  @Test
+  void resourceOpensFileOnlyWhenRead() throws IOException {
+    when(delegate.findByKey("key", BUCKET))
+        .thenReturn(new ByteArrayResource(CONTENT.getBytes(UTF_8)));
+
+    var resource = storageService.findByKey("key", BUCKET);
+
+    assertThat(resource.isOpen()).isFalse();
+    assertThat(read(resource)).isEqualTo(CONTENT);
+    assertThat(read(resource)).isEqualTo(CONTENT);
+  }
+
+  @Test
+  void failedDownloadIsNotCached() {
+    when(delegate.findByKey("key", BUCKET))
+        .thenThrow(new ImageNotFoundException("Image key not found"));
+
+    assertThatThrownBy(() -> storageService.findByKey("key", BUCKET))
+        .isInstanceOf(ImageNotFoundException.class);
+    assertThatThrownBy(() -> storageService.findByKey("key", BUCKET))
+        .isInstanceOf(ImageNotFoundException.class);
+
+    assertThat(storageService.getCachedEntries()).isZero();
+    verify(delegate, times(2)).findByKey("key", BUCKET);
+  }
+
+  private static String read(Resource resource) throws IOException {
+    try (var in = resource.getInputStream()) {
+      return new String(in.readAllBytes(), UTF_8);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package com.example.tangerine.api.storage;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.tangerine.api.exception.ImageNotFoundException;
+import com.example.tangerine.api.exception.ImageUploadException;
+import com.example.tangerine.api.service.impl.FileSystemStorageService;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpRange;
+
+public class FileSystemStorageServiceTest {
+  private static final String BUCKET = "bucket";
+
+  @TempDir
+  private Path root;
+
+  private FileSystemStorageService storageService;
+
+  @BeforeEach
+  void setUp() {
+    storageService = new FileSystemStorageService(root, true, false);
+  }
+
+  @Test
+  void objectIsStoredUnderShardedSha256Path() throws Exception {
+    storageService.uploadImage("image".getBytes(UTF_8), "recipe-images/1/key", BUCKET);
+
+    var hash = sha256("recipe-images/1/key");
+    var expected = root.resolve(BUCKET)
+        .resolve(hash.substring(0, 2))
+        .resolve(hash.substring(2, 4))
+        .resolve(hash);
+    assertThat(expected).hasContent("image");
+    try (var files = Files.list(expected.getParent())) {
+      assertThat(files).containsExactly(expected);
+    }
+  }
+
+  @Test
+  void objectAndItsVariantDoNotCollide() throws IOException {
+    storageService.uploadImage("original".getBytes(UTF_8), "recipe-images/1/key", BUCKET);
+    storageService.uploadImage("small".getBytes(UTF_8), "recipe-images/1/key/small", BUCKET);
+
+    assertThat(read(storageService.findByKey("recipe-images/1/key", BUCKET)))
+        .isEqualTo("original");
+    assertThat(read(storageService.findByKey("recipe-images/1/key/small", BUCKET)))
+        .isEqualTo("small");
+  }
+
+  @Test
+  void truncatedUploadKeepsPreviousObject() throws Exception {
+    storageService.uploadImage("first".getBytes(UTF_8), "key", BUCKET);
+
+    var truncated = new ByteArrayInputStream("sec".getBytes(UTF_8));
+    assertThatThrownBy(() -> storageService.uploadImage(truncated, 6, "key", BUCKET))
+        .isInstanceOf(ImageUploadException.class);
+
+    assertThat(read(storageService.findByKey("key", BUCKET))).isEqualTo("first");
+    var hash = sha256("key");
+    try (var files = Files.list(root.resolve(BUCKET).resolve(hash.substring(0, 2))
+        .resolve(hash.substring(2, 4)))) {
+      assertThat(files).extracting(path -> path.getFileName().toString()).containsExactly(hash);
+    }
+  }
+
+  @Test
+  void rangeIsServedFromStoredObject() throws IOException {
+    storageService.uploadImage("0123456789".getBytes(UTF_8), "key", BUCKET);
+
+    var range = storageService.findRange("key", BUCKET, HttpRange.createByteRange(3, 5));
+
+    assertThat(read(range.getContent())).isEqualTo("345");
+    assertThat(range.getTotalLength()).isEqualTo(10);
+    assertThat(storageService.findContentLength("key", BUCKET)).hasValue(10);
+  }
+
+  @Test
+  void missingObjectIsNotFound() {
+    assertThatThrownBy(() -> storageService.findByKey("missing", BUCKET))
+        .isInstanceOf(ImageNotFoundException.class);
+    assertThat(storageService.findContentLength("missing", BUCKET)).isEmpty();
+  }
+
+  @Test
+  void presignedModeIsRejectedAtStartup() {
+    assertThatThrownBy(() -> new FileSystemStorageService(root, true, true))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  private static String read(Resource resource) throws IOException {
+    try (var in = resource.getInputStream()) {
+      return new String(in.readAllBytes(), UTF_8);
+    }
+  }
+
+  private static String sha256(String value) throws NoSuchAlgorithmException {
+    var digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(UTF_8));
+    return HexFormat.of().formatHex(digest);
+  }
+}
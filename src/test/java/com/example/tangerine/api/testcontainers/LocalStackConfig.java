@@ -0,0 +1,16 @@
+package com.example.tangerine.api.testcontainers;
+
+import lombok.Data;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import org.testcontainers.utility.DockerImageName;
+
+@Data
+public class LocalStackConfig implements TestcontainersConfig<LocalStackContainer> {
+  public static final String NAME = "localstack";
+  private String dockerImage;
+
+  public LocalStackContainer forContainer() {
+    return new LocalStackContainer(DockerImageName.parse(dockerImage))
+        .withServices(LocalStackContainer.Service.S3);
+  }
+}
@@ -0,0 +1,40 @@
+package com.example.tangerine.api.testcontainers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import org.testcontainers.lifecycle.Startables;
+
+public class LocalStackInitializer implements
+    ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+  private static void createBucket(LocalStackContainer localstack, String bucket) {
+    try {
+      localstack.execInContainer("awslocal", "s3", "mb", "s3://" + bucket);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public void initialize(ConfigurableApplicationContext ctx) {
+    var localstack = TestcontainersInitializer.getConfig(
+        ctx, LocalStackConfig.NAME, LocalStackConfig.class).forContainer();
+    Startables.deepStart(localstack).join();
+    createBucket(localstack, ctx.getEnvironment().getRequiredProperty("aws.bucket"));
+
+    TestPropertyValues.of(
+        "spring.cloud.aws.s3.endpoint=" + localstack.getEndpoint(),
+        "spring.cloud.aws.s3.path-style-access-enabled=true",
+        "spring.cloud.aws.region.static=" + localstack.getRegion(),
+        "spring.cloud.aws.credentials.access-key=" + localstack.getAccessKey(),
+        "spring.cloud.aws.credentials.secret-key=" + localstack.getSecretKey()
+    ).applyTo(ctx.getEnvironment());
+  }
+}
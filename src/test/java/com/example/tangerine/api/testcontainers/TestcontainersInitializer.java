@@ -10,7 +10,7 @@ public class TestcontainersInitializer implements
     ApplicationContextInitializer<ConfigurableApplicationContext> {
   private static final String PREFIX = "testcontainers.";
 
-  private static <T> T getConfig(ConfigurableApplicationContext ctx, String name, Class<T> target) {
+  static <T> T getConfig(ConfigurableApplicationContext ctx, String name, Class<T> target) {
     var env = ctx.getEnvironment();
     return Binder.get(env).bind(PREFIX + name, target).get();
   }
@@ -26,4 +26,4 @@ public class TestcontainersInitializer implements
         "spring.datasource.password=" + postgres.getPassword()
     ).applyTo(ctx.getEnvironment());
   }
-}
\ No newline at end of file
+}
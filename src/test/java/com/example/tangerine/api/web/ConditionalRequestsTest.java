@@ -0,0 +1,106 @@
+package com.example.tangerine.api.web;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.tangerine.api.security.JwtTokenProvider;
+import com.example.tangerine.api.service.RecipeService;
+import com.example.tangerine.api.testcontainers.TestcontainersInitializer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestcontainersInitializer.class)
+@Sql({"/users-create.sql", "/recipes-with-ingredients-create.sql"})
+@Sql(scripts = "/cleanup.sql", executionPhase = AFTER_TEST_METHOD)
+public class ConditionalRequestsTest {
+  private static final String RENAME = "{\"name\": \"Renamed recipe\"}";
+
+  @Autowired
+  private MockMvc mockMvc;
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+  @Autowired
+  private JwtTokenProvider jwtTokenProvider;
+  @SpyBean
+  private RecipeService recipeService;
+
+  @Test
+  void matchingTagIsNotModified() throws Exception {
+    mockMvc.perform(get("/recipes/1"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"0.0\""));
+
+    mockMvc.perform(get("/recipes/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"0.0\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"0.0\""));
+  }
+
+  @Test
+  void renamedAuthorChangesTheTag() throws Exception {
+    jdbcTemplate.update("UPDATE users SET username = 'Renamed', version = version + 1 "
+        + "WHERE id = 1");
+
+    mockMvc.perform(get("/recipes/1").header(HttpHeaders.IF_NONE_MATCH, "\"0.0\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"0.1\""))
+        .andExpect(jsonPath("$.authorUsername").value("Renamed"));
+  }
+
+  @Test
+  void matchingIfMatchUpdates() throws Exception {
+    mockMvc.perform(rename().header(HttpHeaders.IF_MATCH, "\"0.0\""))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"1.0\""))
+        .andExpect(jsonPath("$.name").value("Renamed recipe"));
+  }
+
+  @Test
+  void staleIfMatchIsRejected() throws Exception {
+    jdbcTemplate.update("UPDATE recipes SET version = version + 1 WHERE id = 1");
+
+    mockMvc.perform(rename().header(HttpHeaders.IF_MATCH, "\"0.0\""))
+        .andExpect(status().isPreconditionFailed());
+    mockMvc.perform(get("/recipes/1"))
+        .andExpect(jsonPath("$.name").value("First recipe"));
+  }
+
+  @Test
+  void writeRacingTheIfMatchCheckConflicts() throws Exception {
+    doAnswer(invocation -> {
+      jdbcTemplate.update("UPDATE recipes SET version = version + 1 WHERE id = 1");
+      return invocation.callRealMethod();
+    }).when(recipeService).update(any(), any());
+
+    mockMvc.perform(rename().header(HttpHeaders.IF_MATCH, "\"0.0\""))
+        .andExpect(status().isConflict());
+  }
+
+  private MockHttpServletRequestBuilder rename() {
+    return patch("/recipes/1")
+        .header(HttpHeaders.AUTHORIZATION,
+            "Bearer " + jwtTokenProvider.generateToken(1L, "First", List.of()))
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(RENAME);
+  }
+}
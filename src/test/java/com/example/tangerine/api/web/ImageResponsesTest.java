@@ -0,0 +1,106 @@
+package com.example.tangerine.api.web;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.tangerine.api.service.StorageService;
+import com.example.tangerine.api.testcontainers.TestcontainersInitializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@SpringBootTest(properties = {
+    "storage.type=filesystem",
+    "storage.filesystem.directory=${java.io.tmpdir}/tangerine-image-responses-test"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestcontainersInitializer.class)
+@Sql("/ingredients-create.sql")
+@Sql(scripts = "/cleanup.sql", executionPhase = AFTER_TEST_METHOD)
+public class ImageResponsesTest {
+  private static final String IMAGE = "0123456789";
+
+  @Autowired
+  private MockMvc mockMvc;
+  @Autowired
+  private StorageService storageService;
+  @Value("${aws.bucket}")
+  private String bucket;
+
+  @BeforeEach
+  void setUp() {
+    storageService.uploadImage(IMAGE.getBytes(UTF_8), "ingredient-images/1/1", bucket);
+  }
+
+  @Test
+  void imageIsServedWithItsTag() throws Exception {
+    perform(get("/ingredients/1/image"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+        .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+        .andExpect(content().string(IMAGE));
+  }
+
+  @Test
+  void matchingTagIsNotModified() throws Exception {
+    perform(get("/ingredients/1/image").header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void singleRangeIsServedPartially() throws Exception {
+    perform(get("/ingredients/1/image").header(HttpHeaders.RANGE, "bytes=2-4"))
+        .andExpect(status().isPartialContent())
+        .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-4/10"))
+        .andExpect(content().string("234"));
+  }
+
+  @Test
+  void staleIfRangeServesWholeImage() throws Exception {
+    perform(get("/ingredients/1/image")
+        .header(HttpHeaders.RANGE, "bytes=2-4")
+        .header(HttpHeaders.IF_RANGE, "\"2\""))
+        .andExpect(status().isOk())
+        .andExpect(content().string(IMAGE));
+  }
+
+  @Test
+  void unsatisfiableRangeIsRejected() throws Exception {
+    perform(get("/ingredients/1/image").header(HttpHeaders.RANGE, "bytes=20-30"))
+        .andExpect(status().isRequestedRangeNotSatisfiable());
+  }
+
+  @Test
+  void missingImageIsNotFound() throws Exception {
+    mockMvc.perform(get("/ingredients/5/image"))
+        .andExpect(status().isNotFound());
+  }
+
+  // the image future completes in an async dispatch
+  private ResultActions perform(MockHttpServletRequestBuilder builder) throws Exception {
+    var actions = mockMvc.perform(builder).andExpect(request().asyncStarted());
+    while (actions.andReturn().getRequest().isAsyncStarted()) {
+      actions = mockMvc.perform(asyncDispatch(actions.andReturn()));
+    }
+    return actions;
+  }
+}
@@ -0,0 +1,97 @@
+package com.example.tangerine.api.web;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.context.jdbc.Sql.ExecutionPhase.AFTER_TEST_METHOD;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.tangerine.api.repository.RecipeRepository;
+import com.example.tangerine.api.security.JwtTokenProvider;
+import com.example.tangerine.api.testcontainers.TestcontainersInitializer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = TestcontainersInitializer.class)
+@Sql({"/users-create.sql", "/recipes-with-ingredients-create.sql"})
+@Sql(scripts = "/cleanup.sql", executionPhase = AFTER_TEST_METHOD)
+public class OwnershipChecksTest {
+  private static final String RENAME = "{\"name\": \"Renamed recipe\"}";
+
+  @Autowired
+  private MockMvc mockMvc;
+  @Autowired
+  private JwtTokenProvider jwtTokenProvider;
+  @SpyBean
+  private RecipeRepository recipeRepository;
+
+  @Test
+  void nonOwnerIsForbidden() throws Exception {
+    mockMvc.perform(rename(1L, 2L, "Second"))
+        .andExpect(status().isForbidden());
+    mockMvc.perform(as(delete("/recipes/1"), 2L, "Second"))
+        .andExpect(status().isForbidden());
+
+    mockMvc.perform(get("/recipes/1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.name").value("First recipe"));
+  }
+
+  @Test
+  void missingRecipeIsNotFound() throws Exception {
+    mockMvc.perform(rename(5L, 1L, "First"))
+        .andExpect(status().isNotFound());
+    mockMvc.perform(as(delete("/recipes/5"), 1L, "First"))
+        .andExpect(status().isNotFound());
+  }
+
+  @Test
+  void ownerUpdateRunsOneOwnershipQuery() throws Exception {
+    mockMvc.perform(rename(1L, 1L, "First"))
+        .andExpect(status().isOk());
+
+    verify(recipeRepository, times(1)).existsByIdAndAuthorId(1L, 1L);
+    verify(recipeRepository, never()).existsById(anyLong());
+  }
+
+  // the checker and removeIngredient both need the recipe to exist
+  @Test
+  void checkerAndServiceShareTheOwnershipQuery() throws Exception {
+    mockMvc.perform(as(delete("/recipes/1/ingredients/1"), 1L, "First"))
+        .andExpect(status().isNoContent());
+
+    verify(recipeRepository, times(1)).existsByIdAndAuthorId(1L, 1L);
+    verify(recipeRepository, never()).existsById(anyLong());
+  }
+
+  private MockHttpServletRequestBuilder rename(Long id, Long userId, String username) {
+    return as(patch("/recipes/{id}", id), userId, username)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(RENAME);
+  }
+
+  private MockHttpServletRequestBuilder as(MockHttpServletRequestBuilder request, Long userId,
+                                           String username) {
+    return request.header(HttpHeaders.AUTHORIZATION,
+        "Bearer " + jwtTokenProvider.generateToken(userId, username, List.of()));
+  }
+}
@@ -0,0 +1,2 @@
+TRUNCATE TABLE comments, menus_recipes, recipes_ingredients, menus, recipes, ingredients,
+    ingredient_counters, users_roles, users CASCADE;
\ No newline at end of file
@@ -0,0 +1,7 @@
+INSERT INTO comments (id, text, created_at, author_id, recipe_id)
+VALUES (1, 'First comment', '2024-01-01 10:00:00+00', 1, 1),
+       (2, 'Second comment', '2024-01-01 10:00:00+00', 2, 1),
+       (3, 'Third comment', '2024-01-01 10:00:00+00', 3, 1),
+       (4, 'Fourth comment', '2024-01-02 10:00:00+00', 4, 1),
+       (5, 'Fifth comment', '2024-01-02 10:00:00+00', 1, 1),
+       (6, 'Sixth comment', '2024-01-01 10:00:00+00', 2, 2);
\ No newline at end of file
@@ -0,0 +1,11 @@
+INSERT INTO recipes_ingredients (recipe_id, ingredient_id)
+VALUES (2, 1);
+
+INSERT INTO menus_recipes (menu_id, recipe_id)
+VALUES (1, 3),
+       (2, 1),
+       (2, 2),
+       (3, 1);
+
+INSERT INTO comments (id, text, created_at, author_id, recipe_id)
+VALUES (5, 'Fifth comment', now(), 1, 2);
\ No newline at end of file
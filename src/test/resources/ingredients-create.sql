@@ -0,0 +1,5 @@
+INSERT INTO ingredients (id, name, created_at, image_key)
+VALUES (1, 'First ingredient', now(), 1),
+       (2, 'Second ingredient', now(), 2),
+       (3, 'Third ingredient', now(), 3),
+       (4, 'Fourth ingredient', now(), 4);
\ No newline at end of file
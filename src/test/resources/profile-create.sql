@@ -0,0 +1,11 @@
+INSERT INTO recipes (id, complexity, created_at, description, name, image_key, products_cost, seconds_duration, author_id)
+VALUES (1, 'EASY', now() - interval '4 hours', 'Recipe One', 'First recipe', null, 100, 1000, 1),
+       (2, 'MEDIUM', now() - interval '3 hours', 'Recipe Two', 'Second recipe', null, 200, 2000, 1),
+       (3, 'EASY', now() - interval '2 hours', 'Recipe Three', 'Third recipe', null, 300, 3000, 1),
+       (4, 'HARD', now() - interval '1 hour', 'Recipe Four', 'Fourth recipe', null, 400, 4000, 1),
+       (5, 'EASY', now(), 'Recipe Five', 'Fifth recipe', null, 500, 5000, 2);
+
+INSERT INTO menus (id, created_at, name, image_key, author_id)
+VALUES (1, now() - interval '2 hours', 'First menu', null, 1),
+       (2, now() - interval '1 hour', 'Second menu', null, 1),
+       (3, now(), 'Third menu', null, 2);
\ No newline at end of file
@@ -0,0 +1,5 @@
+INSERT INTO recipes (id, complexity, created_at, description, name, image_key, products_cost, seconds_duration, author_id)
+VALUES (1, 'EASY', now(), 'Warm soup with basil', 'Tomato soup', null, 100, 1000, 1),
+       (2, 'MEDIUM', now(), 'Pasta with tomato sauce', 'Pasta', null, 200, 2000, 2),
+       (3, 'EASY', now(), 'Fresh tomato and onion salad', 'Tomato salad', null, 300, 3000, 3),
+       (4, 'HARD', now(), 'Sweet breakfast', 'Pancakes', null, 400, 4000, 4);
\ No newline at end of file
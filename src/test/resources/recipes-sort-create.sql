@@ -0,0 +1,7 @@
+INSERT INTO recipes (id, complexity, created_at, description, name, image_key, products_cost, seconds_duration, author_id)
+VALUES (1, 'EASY', '2024-01-01 10:00:00+00', 'Recipe One', 'First recipe', null, 100, 1000, 1),
+       (2, 'MEDIUM', '2024-01-01 10:00:00+00', 'Recipe Two', 'Second recipe', null, 100, 2000, 2),
+       (3, 'EASY', '2024-01-02 10:00:00+00', 'Recipe Three', 'Third recipe', null, 300, 1000, 3),
+       (4, 'HARD', '2024-01-01 10:00:00+00', 'Recipe Four', 'Fourth recipe', null, 100, 1000, 4),
+       (5, 'EASY', '2024-01-03 10:00:00+00', 'Recipe Five', 'Fifth recipe', null, null, null, 1),
+       (6, 'HARD', '2024-01-02 10:00:00+00', 'Recipe Six', 'Sixth recipe', null, 300, 2000, 2);
\ No newline at end of file